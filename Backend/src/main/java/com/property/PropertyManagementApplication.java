@@ -1,13 +1,20 @@
 package com.property; // <-- This is the package your IDE expects
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.TypeExcludeFilter;
 import org.springframework.context.annotation.ComponentScan; // <-- IMPORT THIS
+import org.springframework.context.annotation.FilterType;
 
 @SpringBootApplication
 // --- THIS IS THE FIX ---
 // Tell Spring Boot to scan BOTH your main package AND the "com.property" package
-@ComponentScan(basePackages = {"com.property.management", "com.property"})
+// The filters are the ones @SpringBootApplication would add; they keep test slices (@DataJpaTest) slim
+@ComponentScan(basePackages = {"com.property.management", "com.property"}, excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class)
+})
 // --- END FIX ---
 public class PropertyManagementApplication {
 
@@ -0,0 +1,50 @@
+package com.property.config;
+
+import com.property.model.IdGenerators;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves every pooled id generator past the highest id already in its table.
+ * <p>
+ * Rows inserted while the tables still used AUTO_INCREMENT would otherwise
+ * collide with the first ids handed out by the generators. The pooled
+ * optimizer treats the stored value as the top of the next block, so it is
+ * set to at least {@code MAX(id) + allocation size}. Runs once at startup,
+ * after Hibernate has updated the schema and before any request is served.
+ */
+@Component
+public class IdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(IdGeneratorInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Depending on the EntityManagerFactory makes sure the schema update has run
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void seed() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdGenerators.TABLE + " (" +
+                IdGenerators.NAME_COLUMN + " VARCHAR(255) NOT NULL PRIMARY KEY, " +
+                IdGenerators.VALUE_COLUMN + " BIGINT)");
+
+        for (String table : IdGenerators.POOLED_TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // Row alias instead of VALUES(), which MySQL 8.0.20 deprecated; GREATEST never moves a generator back
+            jdbcTemplate.update(
+                    "INSERT INTO " + IdGenerators.TABLE + " (" + IdGenerators.NAME_COLUMN + ", " + IdGenerators.VALUE_COLUMN + ") " +
+                    "VALUES (?, ?) AS new " +
+                    "ON DUPLICATE KEY UPDATE " + IdGenerators.VALUE_COLUMN + " = " +
+                    "GREATEST(" + IdGenerators.VALUE_COLUMN + ", new." + IdGenerators.VALUE_COLUMN + ")",
+                    table, maxId + IdGenerators.ALLOCATION_SIZE);
+        }
+        log.debug("Id generators seeded for {}", IdGenerators.POOLED_TABLES);
+    }
+}
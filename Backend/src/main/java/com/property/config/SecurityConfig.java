@@ -2,6 +2,7 @@ package com.property.config;
 
 import com.property.security.JwtAuthenticationEntryPoint;
 import com.property.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; // <-- Make sure this is imported
@@ -56,12 +57,16 @@ public class SecurityConfig {
                 // 1. Allow all OPTIONS (preflight) requests
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() 
                 
+                // Async dispatches (SSE streams) were already authorized on the initial request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                
                 // 2. Allow all authentication requests
                 .requestMatchers("/api/auth/**").permitAll()
                 
                 // --- THIS IS THE FIX ---
                 // 3. Explicitly allow GET requests to the /uploads/ folder
                 .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll() 
+                .requestMatchers(HttpMethod.HEAD, "/uploads/**").permitAll()
                 // --- END FIX ---
                 
                 .requestMatchers("/api/admin/**").hasRole("ADMIN") 
@@ -77,7 +82,7 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOriginPatterns(Arrays.asList("http://localhost:3000", "http://localhost:5173"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "Last-Event-ID", "Range", "If-None-Match", "If-Range"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
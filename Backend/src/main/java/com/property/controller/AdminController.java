@@ -3,8 +3,15 @@ package com.property.controller;
 import com.property.dto.AdminStatsDto;
 import com.property.dto.UserResponse;
 import com.property.dto.CreateTenantRequest;
+import com.property.dto.RentRollResult;
+import com.property.dto.UploadReapReport;
+import com.property.dto.UserSummary;
 import com.property.model.User; // adjust package if needed
 import com.property.service.AdminService;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -30,18 +37,41 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    @PostMapping("/rent-roll")
+    public ResponseEntity<RentRollResult> generateRentRoll(@RequestParam(required = false) String period) {
+        return ResponseEntity.ok(adminService.generateRentRoll(period));
+    }
+
+    @PostMapping("/uploads/reap")
+    public ResponseEntity<UploadReapReport> reapUploads(@RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity.ok(adminService.reapUploads(dryRun));
+    }
+
     @GetMapping("/users")
     public ResponseEntity<List<UserResponse>> getAllUsers() {
         List<UserResponse> users = adminService.getAllUsers();
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/users", params = "page")
+    public ResponseEntity<Page<UserSummary>> getUsers(
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(adminService.getUsers(pageable));
+    }
+
     @GetMapping("/users/role/{role}")
     public ResponseEntity<List<UserResponse>> getUsersByRole(@PathVariable String role) {
         List<UserResponse> users = adminService.getUsersByRole(role);
         return ResponseEntity.ok(users);
     }
 
+    @GetMapping(value = "/users/role/{role}", params = "page")
+    public ResponseEntity<Page<UserSummary>> getUsersByRole(
+            @PathVariable String role,
+            @PageableDefault(size = 20, sort = "id", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(adminService.getUsersByRole(role, pageable));
+    }
+
     @GetMapping("/users/{userId}")
     public ResponseEntity<UserResponse> getUserById(@PathVariable Long userId) {
         UserResponse user = adminService.getUserById(userId);
@@ -0,0 +1,29 @@
+package com.property.controller;
+
+import com.property.dto.LandlordSummaryDto;
+import com.property.service.LandlordRollupService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/landlord")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:5173"})
+public class LandlordController {
+
+    private final LandlordRollupService rollupService;
+
+    public LandlordController(LandlordRollupService rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    // Landlords may only see their own figures; admins may see anyone's
+    @GetMapping("/{id}/summary")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('LANDLORD') and #id == principal.id)")
+    public ResponseEntity<LandlordSummaryDto> getSummary(
+            @PathVariable Long id,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        return ResponseEntity.ok(rollupService.getSummary(id, from, to));
+    }
+}
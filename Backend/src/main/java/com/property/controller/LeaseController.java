@@ -1,12 +1,20 @@
 package com.property.controller;
 
+import com.property.dto.CursorPage;
 import com.property.dto.LeaseDto;
+import com.property.service.ExportService;
 import com.property.service.LeaseService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,9 +23,11 @@ import java.util.List;
 public class LeaseController {
 
     private final LeaseService leaseService;
+    private final ExportService exportService;
     
-    public LeaseController(LeaseService leaseService) {
+    public LeaseController(LeaseService leaseService, ExportService exportService) {
         this.leaseService = leaseService;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -26,6 +36,31 @@ public class LeaseController {
         return ResponseEntity.ok(leases);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<LeaseDto>> getAllLeases(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(leaseService.getAllLeases(after, limit));
+    }
+
+    // Streams every matching row; landlords may only export their own leases
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('LANDLORD') and #landlordId == principal.id)")
+    public ResponseEntity<StreamingResponseBody> exportLeases(
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        StreamingResponseBody body = exportService.reserve(
+                out -> exportService.exportLeases(landlordId, from, to, exportFormat, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"leases-" + LocalDate.now() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<LeaseDto> getLeaseById(@PathVariable Long id) {
         LeaseDto lease = leaseService.getLeaseById(id);
@@ -38,18 +73,42 @@ public class LeaseController {
         return ResponseEntity.ok(leases);
     }
 
+    @GetMapping(value = "/landlord/{landlordId}", params = "limit")
+    public ResponseEntity<CursorPage<LeaseDto>> getLeasesByLandlord(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(leaseService.getLeasesByLandlord(landlordId, after, limit));
+    }
+
     @GetMapping("/tenant/{tenantId}")
     public ResponseEntity<List<LeaseDto>> getLeasesByTenant(@PathVariable Long tenantId) {
         List<LeaseDto> leases = leaseService.getLeasesByTenant(tenantId);
         return ResponseEntity.ok(leases);
     }
 
+    @GetMapping(value = "/tenant/{tenantId}", params = "limit")
+    public ResponseEntity<CursorPage<LeaseDto>> getLeasesByTenant(
+            @PathVariable Long tenantId,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(leaseService.getLeasesByTenant(tenantId, after, limit));
+    }
+
     @GetMapping("/expiring")
     public ResponseEntity<List<LeaseDto>> getExpiringLeases(@RequestParam(defaultValue = "30") int days) {
         List<LeaseDto> leases = leaseService.getExpiringLeases(days);
         return ResponseEntity.ok(leases);
     }
 
+    @GetMapping(value = "/expiring", params = "limit")
+    public ResponseEntity<CursorPage<LeaseDto>> getExpiringLeases(
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(leaseService.getExpiringLeases(days, after, limit));
+    }
+
     @PostMapping
     public ResponseEntity<LeaseDto> createLease(
             @Valid @RequestBody LeaseDto leaseDto,
@@ -1,10 +1,16 @@
 package com.property.controller;
 
+import com.property.dto.CursorPage;
+import com.property.dto.MarkNotificationsReadRequest;
 import com.property.dto.NotificationDto;
+import com.property.security.UserPrincipal;
 import com.property.service.NotificationService;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -25,18 +31,49 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<NotificationDto>> getUserNotifications(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit,
+            Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        return ResponseEntity.ok(notificationService.getUserNotifications(principal.getId(), after, limit));
+    }
+
     @GetMapping("/unread-count")
     public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
-        Long count = notificationService.getUnreadCount(authentication.getName());
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        Long count = notificationService.getUnreadCount(principal.getId());
         return ResponseEntity.ok(count);
     }
 
+    /**
+     * Live notifications and unread counts. Browsers' EventSource sends the
+     * Last-Event-ID header on reconnect, so missed notifications are replayed;
+     * a "replay-truncated" event means more were missed than fit in the replay
+     * and the list should be loaded again. A user with too many open streams
+     * gets 429.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                          Authentication authentication) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        return notificationService.subscribe(principal.getId(), lastEventId);
+    }
+
     @PatchMapping("/{id}/read")
     public ResponseEntity<NotificationDto> markAsRead(@PathVariable Long id, Authentication authentication) {
         NotificationDto notification = notificationService.markAsRead(id, authentication.getName());
         return ResponseEntity.ok(notification);
     }
 
+    @PatchMapping("/read")
+    public ResponseEntity<Integer> markAsRead(@Valid @RequestBody MarkNotificationsReadRequest request,
+                                              Authentication authentication) {
+        int updated = notificationService.markAsRead(request.getIds(), authentication.getName());
+        return ResponseEntity.ok(updated);
+    }
+
     @PatchMapping("/mark-all-read")
     public ResponseEntity<Void> markAllAsRead(Authentication authentication) {
         notificationService.markAllAsRead(authentication.getName());
@@ -1,12 +1,20 @@
 package com.property.controller;
 
+import com.property.dto.CursorPage;
 import com.property.dto.PaymentDto;
+import com.property.service.ExportService;
 import com.property.service.PaymentService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -15,9 +23,11 @@ import java.util.List;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final ExportService exportService;
     
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, ExportService exportService) {
         this.paymentService = paymentService;
+        this.exportService = exportService;
     }
 
     @GetMapping
@@ -26,6 +36,31 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<PaymentDto>> getAllPayments(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(paymentService.getAllPayments(after, limit));
+    }
+
+    // Streams every matching row; landlords may only export their own payments
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN') or (hasRole('LANDLORD') and #landlordId == principal.id)")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(required = false) Long landlordId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "csv") String format) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        StreamingResponseBody body = exportService.reserve(
+                out -> exportService.exportPayments(landlordId, from, to, exportFormat, out));
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"payments-" + LocalDate.now() + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PaymentDto> getPaymentById(@PathVariable Long id) {
         PaymentDto payment = paymentService.getPaymentById(id);
@@ -38,18 +73,41 @@ public class PaymentController {
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping(value = "/landlord/{landlordId}", params = "limit")
+    public ResponseEntity<CursorPage<PaymentDto>> getPaymentsByLandlord(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsByLandlord(landlordId, after, limit));
+    }
+
     @GetMapping("/tenant/{tenantId}")
     public ResponseEntity<List<PaymentDto>> getPaymentsByTenant(@PathVariable Long tenantId) {
         List<PaymentDto> payments = paymentService.getPaymentsByTenant(tenantId);
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping(value = "/tenant/{tenantId}", params = "limit")
+    public ResponseEntity<CursorPage<PaymentDto>> getPaymentsByTenant(
+            @PathVariable Long tenantId,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(paymentService.getPaymentsByTenant(tenantId, after, limit));
+    }
+
     @GetMapping("/overdue")
     public ResponseEntity<List<PaymentDto>> getOverduePayments() {
         List<PaymentDto> payments = paymentService.getOverduePayments();
         return ResponseEntity.ok(payments);
     }
 
+    @GetMapping(value = "/overdue", params = "limit")
+    public ResponseEntity<CursorPage<PaymentDto>> getOverduePayments(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(paymentService.getOverduePayments(after, limit));
+    }
+
     @PostMapping
     public ResponseEntity<PaymentDto> createPayment(@Valid @RequestBody PaymentDto paymentDto) {
         PaymentDto payment = paymentService.createPayment(paymentDto);
@@ -1,10 +1,14 @@
 package com.property.controller;
 
+import com.property.dto.CursorPage;
+import com.property.dto.ImageUploadStatus;
 import com.property.dto.PropertyRequest;
 import com.property.dto.PropertyResponse;
+import com.property.dto.PropertySearchRequest;
 import com.property.service.PropertyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,9 +16,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/properties")
@@ -33,12 +37,32 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<CursorPage<PropertyResponse>> getAllProperties(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(propertyService.getAllProperties(after, limit));
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<PropertyResponse>> getAvailableProperties() {
         List<PropertyResponse> properties = propertyService.getAvailableProperties();
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping(value = "/available", params = "limit")
+    public ResponseEntity<CursorPage<PropertyResponse>> getAvailableProperties(
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(propertyService.getAvailableProperties(after, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<PropertyResponse>> searchProperties(PropertySearchRequest criteria) {
+        List<PropertyResponse> properties = propertyService.searchProperties(criteria);
+        return ResponseEntity.ok(properties);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<PropertyResponse> getPropertyById(@PathVariable Long id) {
         PropertyResponse property = propertyService.getPropertyById(id);
@@ -51,6 +75,14 @@ public class PropertyController {
         return ResponseEntity.ok(properties);
     }
 
+    @GetMapping(value = "/landlord/{landlordId}", params = "limit")
+    public ResponseEntity<CursorPage<PropertyResponse>> getPropertiesByLandlord(
+            @PathVariable Long landlordId,
+            @RequestParam(required = false) String after,
+            @RequestParam Integer limit) {
+        return ResponseEntity.ok(propertyService.getPropertiesByLandlord(landlordId, after, limit));
+    }
+
     @PostMapping
     public ResponseEntity<PropertyResponse> createProperty(
             @Valid @RequestBody PropertyRequest request,
@@ -75,6 +107,7 @@ public class PropertyController {
     }
 
     // --- NEW ENDPOINT: Upload property images ---
+    // Files are processed in the background; poll the returned uploadId for the stored URLs
     @PostMapping("/{id}/upload-images")
     @PreAuthorize("hasRole('LANDLORD') or hasRole('ADMIN')")
     public ResponseEntity<?> uploadPropertyImages(
@@ -87,13 +120,22 @@ public class PropertyController {
         }
 
         try {
-            List<String> imageUrls = propertyService.uploadImages(id, files, authentication.getName());
-            return ResponseEntity.status(HttpStatus.CREATED).body(imageUrls);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("message", "Could not store files. " + e.getMessage()));
+            ImageUploadStatus status = propertyService.uploadImages(id, files, authentication.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "5")
+                    .body(Map.of("message", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
         }
     }
+
+    @GetMapping("/{id}/uploads/{uploadId}")
+    @PreAuthorize("hasRole('LANDLORD') or hasRole('ADMIN')")
+    public ResponseEntity<ImageUploadStatus> getImageUploadStatus(
+            @PathVariable Long id,
+            @PathVariable String uploadId) {
+        return ResponseEntity.ok(propertyService.getImageUploadStatus(id, uploadId));
+    }
 }
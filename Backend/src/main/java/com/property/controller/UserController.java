@@ -2,11 +2,7 @@
 package com.property.controller;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List; // <-- Import
-import java.util.UUID;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize; // <-- Import
@@ -26,6 +22,8 @@ import com.property.dto.UserResponse;
 import com.property.model.User;
 import com.property.repository.UserRepository;
 import com.property.service.AdminService; // <-- Import
+import com.property.service.CustomUserDetailsService;
+import com.property.service.FileStorageService;
 
 @RestController
 @RequestMapping("/api/users")
@@ -34,12 +32,17 @@ public class UserController {
 
     private final UserRepository userRepository;
     private final AdminService adminService; // <-- ADDED
-    private static final String UPLOAD_DIR = "uploads/profiles/";
+    private final CustomUserDetailsService customUserDetailsService;
+    private final FileStorageService fileStorageService;
     
     // --- UPDATED CONSTRUCTOR ---
-    public UserController(UserRepository userRepository, AdminService adminService) {
+    public UserController(UserRepository userRepository, AdminService adminService,
+                          CustomUserDetailsService customUserDetailsService,
+                          FileStorageService fileStorageService) {
         this.userRepository = userRepository;
         this.adminService = adminService; // <-- ADDED
+        this.customUserDetailsService = customUserDetailsService;
+        this.fileStorageService = fileStorageService;
     }
 
     // --- NEW ENDPOINT TO FIX THE 500 ERROR ---
@@ -76,6 +79,7 @@ public class UserController {
         }
 
         User savedUser = userRepository.save(user);
+        customUserDetailsService.evict(savedUser.getEmail());
         return ResponseEntity.ok(UserResponse.fromUser(savedUser));
     }
 
@@ -88,35 +92,18 @@ public class UserController {
             throw new RuntimeException("Please select a file to upload");
         }
 
-        Path uploadPath = Paths.get(UPLOAD_DIR);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
-
-        String originalFilename = file.getOriginalFilename();
-
-        if (originalFilename == null || originalFilename.isBlank()) {
-            throw new RuntimeException("Invalid file: File name is missing or empty.");
-        }
-
-        String extension = "";
-        int dotIndex = originalFilename.lastIndexOf(".");
-        
-        if (dotIndex >= 0 && dotIndex < originalFilename.length() - 1) {
-            extension = originalFilename.substring(dotIndex);
-        }
-
-        String filename = UUID.randomUUID().toString() + extension;
-        
-        Path filePath = uploadPath.resolve(filename);
-        Files.copy(file.getInputStream(), filePath);
+        // Stored once per distinct image, however often it is uploaded
+        String imageUrl = fileStorageService.storeImage(file);
 
         User user = userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
-        String imageUrl = "/uploads/profiles/" + filename; 
+        String previousImage = user.getProfileImage();
         user.setProfileImage(imageUrl);
         userRepository.save(user);
+        if (previousImage != null && !previousImage.equals(imageUrl)) {
+            fileStorageService.release(previousImage);
+        }
 
         return ResponseEntity.ok(imageUrl);
     }
@@ -126,8 +113,12 @@ public class UserController {
         User user = userRepository.findByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
+        String previousImage = user.getProfileImage();
         user.setProfileImage(null);
         userRepository.save(user);
+        if (previousImage != null) {
+            fileStorageService.release(previousImage);
+        }
         
         return ResponseEntity.ok().build();
     }
@@ -0,0 +1,82 @@
+package com.property.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Rows are ordered newest first (by id) and {@code nextCursor} is an opaque
+ * token the client passes back as {@code after} to fetch the following page.
+ */
+@Data
+@Builder
+public class CursorPage<T> {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public static int clampLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Fetches one extra row so we can tell whether another page exists
+     * without issuing a separate COUNT query.
+     */
+    public static Pageable pageRequest(int limit) {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public static String encodeCursor(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("id:" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith("id:")) {
+                throw new IllegalArgumentException();
+            }
+            return Long.valueOf(decoded.substring(3));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid pagination cursor");
+        }
+    }
+
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit,
+                                          Function<E, Long> idExtractor,
+                                          Function<E, T> mapper) {
+        boolean hasMore = rows.size() > limit;
+        List<E> pageRows = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            nextCursor = encodeCursor(idExtractor.apply(pageRows.get(pageRows.size() - 1)));
+        }
+
+        return CursorPage.<T>builder()
+                .items(pageRows.stream().map(mapper).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.property.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Progress of one image upload. Returned with 202 when the upload is accepted
+ * and by the status endpoint until the worker has stored every file.
+ */
+@Data
+@Builder
+public class ImageUploadStatus {
+    private String uploadId;
+    private Long propertyId;
+    private boolean completed;
+    private List<Item> images;
+
+    public enum Status {
+        PENDING, STORED, REJECTED
+    }
+
+    @Data
+    @Builder
+    public static class Item {
+        private String id;
+        private String fileName;
+        private Status status;
+        private Long imageId;
+        private String imageUrl;
+        private String thumbnailUrl;
+        private String error;
+    }
+}
@@ -0,0 +1,19 @@
+package com.property.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class LandlordSummaryDto {
+    private Long landlordId;
+    private String from;
+    private String to;
+    private BigDecimal totalBilled;
+    private BigDecimal totalPaid;
+    private BigDecimal totalOverdue;
+    private List<MonthlyRollupDto> months;
+}
@@ -0,0 +1,17 @@
+package com.property.dto;
+
+import com.property.model.Lease;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat lease row for exports, selected straight from the query so no
+ * entities are loaded while streaming.
+ */
+public record LeaseExportRow(Long id, Long propertyId, String propertyTitle, String propertyCity,
+                             Long tenantId, String tenantName, String tenantEmail,
+                             LocalDate startDate, LocalDate endDate, BigDecimal rentAmount,
+                             BigDecimal securityDeposit, Lease.Status status, LocalDateTime createdAt) {
+}
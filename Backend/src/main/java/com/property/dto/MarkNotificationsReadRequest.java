@@ -0,0 +1,14 @@
+package com.property.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class MarkNotificationsReadRequest {
+    @NotEmpty(message = "Notification ids are required")
+    @Size(max = 1000, message = "At most 1000 notifications can be updated at once")
+    private List<Long> ids;
+}
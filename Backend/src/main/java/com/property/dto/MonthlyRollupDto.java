@@ -0,0 +1,27 @@
+package com.property.dto;
+
+import com.property.model.LandlordMonthlyRollup;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+public class MonthlyRollupDto {
+    private String period;
+    private BigDecimal billed;
+    private BigDecimal paid;
+    private BigDecimal overdue;
+    private Integer occupiedUnits;
+
+    public static MonthlyRollupDto fromRollup(LandlordMonthlyRollup rollup) {
+        return MonthlyRollupDto.builder()
+                .period(rollup.getPeriod())
+                .billed(rollup.getBilled())
+                .paid(rollup.getPaid())
+                .overdue(rollup.getOverdue())
+                .occupiedUnits(rollup.getOccupiedUnits())
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.property.dto;
+
+import com.property.model.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flat payment row for exports, selected straight from the query so no
+ * entities are loaded while streaming.
+ */
+public record PaymentExportRow(Long id, Long leaseId, Long propertyId, String propertyTitle,
+                               Long tenantId, String tenantName, String tenantEmail,
+                               BigDecimal amount, LocalDate dueDate, LocalDate paidDate,
+                               Payment.Status status, String paymentMethod, String notes,
+                               LocalDateTime createdAt) {
+}
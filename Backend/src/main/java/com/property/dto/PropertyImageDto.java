@@ -0,0 +1,27 @@
+package com.property.dto;
+
+import com.property.model.PropertyImage;
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PropertyImageDto {
+    private Long id;
+    private String url;
+    private String fullUrl;
+    private String cardUrl;
+    private String thumbnailUrl;
+
+    // Older images have no variants; every size then falls back to the original
+    public static PropertyImageDto fromImage(PropertyImage image) {
+        String url = image.getImageUrl();
+        return PropertyImageDto.builder()
+                .id(image.getId())
+                .url(url)
+                .fullUrl(image.getFullUrl() != null ? image.getFullUrl() : url)
+                .cardUrl(image.getCardUrl() != null ? image.getCardUrl() : url)
+                .thumbnailUrl(image.getThumbnailUrl() != null ? image.getThumbnailUrl() : url)
+                .build();
+    }
+}
@@ -28,6 +28,7 @@ public class PropertyResponse {
     private Integer squareFeet;
     private List<String> amenities;
     private List<String> images; // This expects a List<String>
+    private List<PropertyImageDto> imageVariants; // same images, with thumbnail/card/full URLs for listings
     private String status;
     private Long landlordId;
     private String landlordName;
@@ -40,6 +41,7 @@ public class PropertyResponse {
 
         // --- THIS IS THE FIX ---
         List<String> imageUrls = new ArrayList<>(); // 1. Initialize an empty list
+        List<PropertyImageDto> imageVariants = new ArrayList<>();
         List<PropertyImage> imageEntities = property.getImages(); // 2. Get the list
         
         // 3. Check if the list is not null before streaming
@@ -47,6 +49,9 @@ public class PropertyResponse {
             imageUrls = imageEntities.stream()
                                      .map(PropertyImage::getImageUrl)
                                      .collect(Collectors.toList());
+            imageVariants = imageEntities.stream()
+                                     .map(PropertyImageDto::fromImage)
+                                     .collect(Collectors.toList());
         }
         // --- END FIX ---
 
@@ -65,6 +70,7 @@ public class PropertyResponse {
                 .squareFeet(property.getSquareFeet())
                 .amenities(property.getAmenities())
                 .images(imageUrls) // <-- Pass the new, safe list of strings
+                .imageVariants(imageVariants)
                 .status(property.getStatus().name().toLowerCase())
                 .landlordId(property.getLandlord().getId())
                 .landlordName(property.getLandlord().getName())
@@ -0,0 +1,21 @@
+package com.property.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Query parameters accepted by GET /api/properties/search; every field is optional
+@Data
+public class PropertySearchRequest {
+    private String city;
+    private String state;
+    private String status;
+    private BigDecimal minRent;
+    private BigDecimal maxRent;
+    private Integer minBedrooms;
+    private Integer minBathrooms;
+    private List<String> amenities;
+    private String q;
+    private Integer limit;
+}
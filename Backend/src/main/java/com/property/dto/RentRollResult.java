@@ -0,0 +1,12 @@
+package com.property.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RentRollResult {
+    private String period;
+    private long paymentsCreated;
+    private long durationMs;
+}
@@ -0,0 +1,19 @@
+package com.property.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class UploadReapReport {
+    private boolean dryRun;
+    private long filesScanned;
+    private long orphansFound;
+    private long filesDeleted;
+    private long bytesFreed;
+    private long durationMs;
+    // First orphans found, for reviewing a dry run
+    private List<String> sample;
+}
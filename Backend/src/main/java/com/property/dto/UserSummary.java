@@ -0,0 +1,38 @@
+package com.property.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lightweight user row for admin listings. Built directly by a JPQL
+ * constructor expression, so no User entities (or their password hashes)
+ * are loaded; roles are filled in afterwards with one query per page.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class UserSummary {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private String profileImage;
+    private LocalDateTime createdAt;
+    private Set<String> roles = new HashSet<>();
+
+    public UserSummary(Long id, String name, String email, String phone,
+                       String profileImage, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.profileImage = profileImage;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package com.property.event;
+
+import com.property.model.Lease;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a lease is created, changes status or term, or is deleted.
+ * {@code previousStatus}/{@code previousTerm} are null for a new lease,
+ * {@code currentStatus}/{@code currentTerm} are null for a deleted one.
+ */
+public record LeaseChangedEvent(Long leaseId, Long landlordId,
+                                Lease.Status previousStatus, Lease.Status currentStatus,
+                                Term previousTerm, Term currentTerm) {
+
+    public record Term(LocalDate startDate, LocalDate endDate) {
+        public static Term of(Lease lease) {
+            return new Term(lease.getStartDate(), lease.getEndDate());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.property.event;
+
+import com.property.model.MaintenanceRequest;
+
+/**
+ * Published when a maintenance request is created, changes status or is deleted.
+ * {@code previousStatus} is null for a new request, {@code currentStatus} is null for a deleted one.
+ */
+public record MaintenanceChangedEvent(Long requestId, MaintenanceRequest.Status previousStatus,
+                                      MaintenanceRequest.Status currentStatus) {
+}
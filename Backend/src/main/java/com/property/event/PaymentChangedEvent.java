@@ -0,0 +1,15 @@
+package com.property.event;
+
+import com.property.model.Payment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Published when a payment is created, changes status or is deleted.
+ * {@code previousStatus} is null for a new payment, {@code currentStatus} is null for a deleted one.
+ * {@code landlordId} and {@code dueDate} let listeners attribute the amount without reloading the payment.
+ */
+public record PaymentChangedEvent(Long paymentId, Long landlordId, LocalDate dueDate, BigDecimal amount,
+                                  Payment.Status previousStatus, Payment.Status currentStatus) {
+}
@@ -0,0 +1,10 @@
+package com.property.event;
+
+import com.property.model.Property;
+
+/**
+ * Published when a property is created, changes status or is deleted.
+ * {@code previousStatus} is null for a new property, {@code currentStatus} is null for a deleted one.
+ */
+public record PropertyChangedEvent(Long propertyId, Property.Status previousStatus, Property.Status currentStatus) {
+}
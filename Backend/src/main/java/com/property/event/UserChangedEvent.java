@@ -0,0 +1,10 @@
+package com.property.event;
+
+import java.util.Set;
+
+/**
+ * Published when a user is created, changes roles or is deleted.
+ * {@code previousRoles} is null for a new user, {@code currentRoles} is null for a deleted one.
+ */
+public record UserChangedEvent(Long userId, Set<String> previousRoles, Set<String> currentRoles) {
+}
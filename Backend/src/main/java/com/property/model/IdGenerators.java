@@ -0,0 +1,28 @@
+package com.property.model;
+
+import java.util.List;
+
+/**
+ * Shared settings for the pooled table-based id generators.
+ * <p>
+ * IDENTITY columns make Hibernate insert each row on its own to learn its id,
+ * which disables JDBC batching. The high-volume entities instead reserve ids
+ * {@link #ALLOCATION_SIZE} at a time from one row per table in
+ * {@link #TABLE}, so inserts can be batched and ordered.
+ */
+public final class IdGenerators {
+
+    public static final String TABLE = "id_generators";
+    public static final String NAME_COLUMN = "gen_name";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    /**
+     * Tables whose ids come from {@link #TABLE}; each generator row is named after its table.
+     */
+    public static final List<String> POOLED_TABLES = List.of(
+            "properties", "property_images", "leases", "payments", "notifications", "maintenance_requests");
+
+    private IdGenerators() {
+    }
+}
@@ -0,0 +1,56 @@
+package com.property.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Per-landlord, per-month totals maintained by LandlordRollupService.
+ * Payments count towards the month they are due in; occupied units are the
+ * leases (excluding terminated ones) whose term covers the month.
+ */
+@Entity
+@Table(name = "landlord_monthly_rollups")
+@IdClass(LandlordMonthlyRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LandlordMonthlyRollup {
+
+    @Id
+    @Column(name = "landlord_id")
+    private Long landlordId;
+
+    // yyyy-MM, so periods sort and compare as strings
+    @Id
+    @Column(length = 7)
+    private String period;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal billed = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal paid = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal overdue = BigDecimal.ZERO;
+
+    @Column(name = "occupied_units", nullable = false)
+    private Integer occupiedUnits = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long landlordId;
+        private String period;
+    }
+}
@@ -16,7 +16,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_status_due_date", columnList = "status, due_date")
+}, uniqueConstraints = {
+    // One rent-roll charge per lease and month; manual payments leave rent_period NULL
+    @UniqueConstraint(name = "uk_payments_lease_rent_period", columnNames = {"lease_id", "rent_period"})
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @Builder
@@ -25,7 +30,10 @@ import java.time.LocalDateTime;
 public class Payment {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "payments_id")
+    @TableGenerator(name = "payments_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "payments",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -55,6 +63,10 @@ public class Payment {
     @Column(columnDefinition = "TEXT")
     private String notes;
     
+    // yyyy-MM of the month this rent charge was generated for by the rent roll
+    @Column(name = "rent_period", length = 7)
+    private String rentPeriod;
+    
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
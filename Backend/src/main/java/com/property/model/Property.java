@@ -3,6 +3,7 @@ package com.property.model; // Or your correct package
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*; // Import all
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -28,7 +29,10 @@ public class Property {
     }
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "properties_id")
+    @TableGenerator(name = "properties_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "properties",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -60,7 +64,10 @@ public class Property {
 
     private Integer squareFeet;
 
+    // Listing pages load amenities and images for up to 100 properties per
+    // secondary SELECT ... WHERE property_id IN (...) instead of one per row.
     @ElementCollection // Assuming amenities is a simple list of strings
+    @BatchSize(size = 100)
     @CollectionTable(name = "property_amenities", joinColumns = @JoinColumn(name = "property_id"))
     @Column(name = "amenity")
     private List<String> amenities = new ArrayList<>(); // Initialize
@@ -72,6 +79,7 @@ public class Property {
         orphanRemoval = true,
         fetch = FetchType.LAZY // Eager-fetching lists can be slow
     )
+    @BatchSize(size = 100)
     @Builder.Default // <-- ADD THIS ANNOTATION
     private List<PropertyImage> images = new ArrayList<>();
     // --- END FIX ---
@@ -8,20 +8,35 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "property_images")
+@Table(name = "property_images", indexes = {
+    @Index(name = "idx_property_images_image_url", columnList = "image_url")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 public class PropertyImage {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "property_images_id")
+    @TableGenerator(name = "property_images_id", table = IdGenerators.TABLE, pkColumnName = IdGenerators.NAME_COLUMN,
+            valueColumnName = IdGenerators.VALUE_COLUMN, pkColumnValue = "property_images",
+            allocationSize = IdGenerators.ALLOCATION_SIZE)
     private Long id;
 
     // The URL or path to the image
     @Column(nullable = false)
     private String imageUrl;
 
+    // Pre-scaled copies (see FileStorageService.ImageVariant); null for images uploaded before variants existed
+    @Column(name = "full_url")
+    private String fullUrl;
+
+    @Column(name = "card_url")
+    private String cardUrl;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "property_id", nullable = false)
     @JsonIgnore // Prevents infinite loops when serializing
@@ -8,6 +8,7 @@ import lombok.Builder; // <-- IMPORT THIS
 import lombok.NoArgsConstructor; // <-- IMPORT THIS
 import lombok.AllArgsConstructor;
 
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,7 +18,9 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_profile_image", columnList = "profile_image")
+})
 @Builder // <-- ADD THIS ANNOTATION
 @NoArgsConstructor // <-- ADD THIS ANNOTATION
 @AllArgsConstructor
@@ -48,6 +51,7 @@ public class User {
 
     // --- THIS IS THE CORRECT RELATIONSHIP ---
     @ManyToMany(fetch = FetchType.EAGER) // EAGER is important for security
+    @BatchSize(size = 100) // user listings load roles in batches, not one query per user
     @JoinTable(
         name = "user_roles",
         joinColumns = @JoinColumn(name = "user_id"),
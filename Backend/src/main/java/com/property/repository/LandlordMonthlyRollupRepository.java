@@ -0,0 +1,12 @@
+package com.property.repository;
+
+import com.property.model.LandlordMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LandlordMonthlyRollupRepository extends JpaRepository<LandlordMonthlyRollup, LandlordMonthlyRollup.Key> {
+    List<LandlordMonthlyRollup> findByLandlordIdAndPeriodBetweenOrderByPeriodAsc(Long landlordId, String from, String to);
+}
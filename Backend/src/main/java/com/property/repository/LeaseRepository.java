@@ -1,23 +1,35 @@
 package com.property.repository;
 
+import com.property.dto.LeaseExportRow;
 import com.property.model.Lease;
 import com.property.model.Property;
 import com.property.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface LeaseRepository extends JpaRepository<Lease, Long> {
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set
+    String STREAMING_FETCH_SIZE = "-2147483648";
+
     List<Lease> findByProperty(Property property);
     List<Lease> findByTenant(User tenant);
     List<Lease> findByPropertyId(Long propertyId);
     List<Lease> findByTenantId(Long tenantId);
     List<Lease> findByStatus(Lease.Status status);
+    long countByStatus(Lease.Status status);
     
     @Query("SELECT l FROM Lease l WHERE l.endDate <= :cutoffDate AND l.status = 'ACTIVE'")
     List<Lease> findExpiredLeases(@Param("cutoffDate") LocalDate cutoffDate);
@@ -27,4 +39,59 @@ public interface LeaseRepository extends JpaRepository<Lease, Long> {
     
     @Query("SELECT l FROM Lease l WHERE l.endDate BETWEEN :startDate AND :endDate AND l.status = 'ACTIVE'")
     List<Lease> findLeasesExpiringBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-}
\ No newline at end of file
+
+    // --- Keyset pagination: newest first, "afterId" is the last id of the previous page ---
+    @Query("SELECT l FROM Lease l WHERE (:afterId IS NULL OR l.id < :afterId) ORDER BY l.id DESC")
+    List<Lease> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Lease l WHERE l.property.landlord.id = :landlordId AND (:afterId IS NULL OR l.id < :afterId) ORDER BY l.id DESC")
+    List<Lease> findPageByLandlordId(@Param("landlordId") Long landlordId,
+                                     @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Lease l WHERE l.tenant.id = :tenantId AND (:afterId IS NULL OR l.id < :afterId) ORDER BY l.id DESC")
+    List<Lease> findPageByTenantId(@Param("tenantId") Long tenantId,
+                                   @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT l FROM Lease l WHERE l.endDate BETWEEN :startDate AND :endDate AND l.status = 'ACTIVE' " +
+           "AND (:afterId IS NULL OR l.id < :afterId) ORDER BY l.id DESC")
+    List<Lease> findPageExpiringBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+
+    // --- Rent roll: active leases covering the period that have not been charged rent for it yet.
+    // Other payments due in the month (deposit, late fee) don't count. Rent charges from before
+    // rent_period existed are recognised by their "Rent for yyyy-MM" note.
+    @Query("SELECT l.id AS id, l.tenant.id AS tenantId, l.property.landlord.id AS landlordId, " +
+           "l.rentAmount AS rentAmount FROM Lease l " +
+           "WHERE l.status = 'ACTIVE' AND l.startDate <= :periodEnd AND l.endDate >= :periodStart " +
+           "AND l.id > :afterId " +
+           "AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.lease = l AND (p.rentPeriod = :period " +
+           "OR (p.rentPeriod IS NULL AND p.dueDate BETWEEN :periodStart AND :periodEnd AND p.notes = :legacyNotes))) " +
+           "ORDER BY l.id ASC")
+    List<BillableLease> findBillableLeases(@Param("period") String period,
+                                           @Param("legacyNotes") String legacyNotes,
+                                           @Param("periodStart") LocalDate periodStart,
+                                           @Param("periodEnd") LocalDate periodEnd,
+                                           @Param("afterId") Long afterId, Pageable pageable);
+
+    interface BillableLease {
+        Long getId();
+        Long getTenantId();
+        Long getLandlordId();
+        BigDecimal getRentAmount();
+    }
+
+    // --- Export: forward-only cursor over leases overlapping the range, consumed inside a read-only transaction ---
+    @Query("SELECT new com.property.dto.LeaseExportRow(l.id, pr.id, pr.title, pr.city, t.id, t.name, t.email, " +
+           "l.startDate, l.endDate, l.rentAmount, l.securityDeposit, l.status, l.createdAt) " +
+           "FROM Lease l JOIN l.property pr JOIN l.tenant t " +
+           "WHERE (:landlordId IS NULL OR pr.landlord.id = :landlordId) " +
+           "AND (:from IS NULL OR l.endDate >= :from) AND (:to IS NULL OR l.startDate <= :to) " +
+           "ORDER BY l.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<LeaseExportRow> streamForExport(@Param("landlordId") Long landlordId,
+                                           @Param("from") LocalDate from,
+                                           @Param("to") LocalDate to);
+}
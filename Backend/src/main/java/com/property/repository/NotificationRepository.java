@@ -2,11 +2,16 @@ package com.property.repository;
 
 import com.property.model.Notification;
 import com.property.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -16,9 +21,49 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     List<Notification> findByUserIdAndIsRead(Long userId, Boolean isRead);
     List<Notification> findByType(Notification.Type type);
     
-    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId ORDER BY n.createdAt DESC")
-    List<Notification> findByUserIdOrderByCreatedAtDesc(@Param("userId") Long userId);
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND (:afterId IS NULL OR n.id < :afterId) ORDER BY n.id DESC")
+    List<Notification> findPageByUserId(@Param("userId") Long userId,
+                                        @Param("afterId") Long afterId,
+                                        Pageable pageable);
+    
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.id > :afterId ORDER BY n.id ASC")
+    List<Notification> findByUserIdAfter(@Param("userId") Long userId,
+                                         @Param("afterId") Long afterId,
+                                         Pageable pageable);
     
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.user.id = :userId AND n.isRead = false")
     Long countUnreadByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT n.user.id AS userId, COUNT(n) AS total FROM Notification n " +
+           "WHERE n.isRead = false AND n.user.id IN :userIds GROUP BY n.user.id")
+    List<UserUnreadCount> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadByUserId(@Param("userId") Long userId);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markAsReadById(@Param("id") Long id);
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.user.id = :userId AND n.id IN :ids AND n.isRead = false")
+    int markAsReadByUserIdAndIds(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    // Ordered the way idx_notifications_read_created (is_read, created_at, + the primary key)
+    // stores the rows, so each batch is read off the front of the index without a sort
+    @Query("SELECT n.id FROM Notification n WHERE n.isRead = true AND n.createdAt < :cutoff " +
+           "ORDER BY n.createdAt ASC, n.id ASC")
+    List<Long> findReadIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    interface UserUnreadCount {
+        Long getUserId();
+        Long getTotal();
+    }
 }
\ No newline at end of file
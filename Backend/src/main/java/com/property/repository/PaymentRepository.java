@@ -1,22 +1,37 @@
 package com.property.repository;
 
+import com.property.dto.PaymentExportRow;
 import com.property.model.Payment;
 import com.property.model.Lease;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
+
+    // Integer.MIN_VALUE makes MySQL Connector/J stream rows one at a time instead of buffering the result set
+    String STREAMING_FETCH_SIZE = "-2147483648";
+
     List<Payment> findByLease(Lease lease);
     List<Payment> findByLeaseId(Long leaseId);
     List<Payment> findByStatus(Payment.Status status);
     
-    @Query("SELECT p FROM Payment p WHERE p.dueDate < :currentDate AND p.status = 'PENDING'")
+    // Overdue = already swept to OVERDUE, or still PENDING past its due date (not swept yet)
+    @Query("SELECT p FROM Payment p WHERE p.status = 'OVERDUE' OR (p.status = 'PENDING' AND p.dueDate < :currentDate)")
     List<Payment> findOverduePayments(@Param("currentDate") LocalDate currentDate);
     
     @Query("SELECT p FROM Payment p WHERE p.lease.tenant.id = :tenantId")
@@ -30,4 +45,78 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     
     @Query("SELECT COUNT(p) FROM Payment p WHERE p.status = 'PENDING'")
     Long countPendingPayments();
-}
\ No newline at end of file
+
+    // Count and amount per status in one pass (admin dashboard)
+    @Query("SELECT p.status AS status, COUNT(p) AS total, SUM(p.amount) AS amount " +
+           "FROM Payment p GROUP BY p.status")
+    List<StatusTotal> summarizeByStatus();
+
+    interface StatusTotal {
+        Payment.Status getStatus();
+        Long getTotal();
+        java.math.BigDecimal getAmount();
+    }
+
+    // --- Keyset pagination: newest first, "afterId" is the last id of the previous page ---
+    @Query("SELECT p FROM Payment p WHERE (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Payment> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p FROM Payment p WHERE p.lease.property.landlord.id = :landlordId AND (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Payment> findPageByLandlordId(@Param("landlordId") Long landlordId,
+                                       @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p FROM Payment p WHERE p.lease.tenant.id = :tenantId AND (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Payment> findPageByTenantId(@Param("tenantId") Long tenantId,
+                                     @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p FROM Payment p WHERE (p.status = 'OVERDUE' OR (p.status = 'PENDING' AND p.dueDate < :currentDate)) " +
+           "AND (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Payment> findPageOverdue(@Param("currentDate") LocalDate currentDate,
+                                  @Param("afterId") Long afterId, Pageable pageable);
+
+    // --- Overdue sweeper: ascending keyset over pending payments past their due date ---
+    // Keyed on (due_date, id), the order idx_payments_status_due_date (status, due_date, + the
+    // primary key) stores the PENDING rows in, so each chunk is an index range scan without a sort
+    @Query("SELECT p.id AS id, p.lease.tenant.id AS tenantId, p.lease.property.landlord.id AS landlordId, " +
+           "p.amount AS amount, p.dueDate AS dueDate " +
+           "FROM Payment p WHERE p.status = 'PENDING' AND p.dueDate < :currentDate " +
+           "AND (:afterDueDate IS NULL OR p.dueDate > :afterDueDate OR (p.dueDate = :afterDueDate AND p.id > :afterId)) " +
+           "ORDER BY p.dueDate ASC, p.id ASC")
+    List<OverdueCandidate> findOverdueCandidates(@Param("currentDate") LocalDate currentDate,
+                                                 @Param("afterDueDate") LocalDate afterDueDate,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :newStatus, p.updatedAt = :now " +
+           "WHERE p.id IN :ids AND p.status = :currentStatus")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("currentStatus") Payment.Status currentStatus,
+                     @Param("newStatus") Payment.Status newStatus,
+                     @Param("now") LocalDateTime now);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.id IN :ids AND p.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Payment.Status status);
+
+    interface OverdueCandidate {
+        Long getId();
+        Long getTenantId();
+        Long getLandlordId();
+        BigDecimal getAmount();
+        LocalDate getDueDate();
+    }
+
+    // --- Export: forward-only cursor, must be consumed inside a read-only transaction ---
+    @Query("SELECT new com.property.dto.PaymentExportRow(p.id, l.id, pr.id, pr.title, t.id, t.name, t.email, " +
+           "p.amount, p.dueDate, p.paidDate, p.status, p.paymentMethod, p.notes, p.createdAt) " +
+           "FROM Payment p JOIN p.lease l JOIN l.property pr JOIN l.tenant t " +
+           "WHERE (:landlordId IS NULL OR pr.landlord.id = :landlordId) " +
+           "AND (:from IS NULL OR p.dueDate >= :from) AND (:to IS NULL OR p.dueDate <= :to) " +
+           "ORDER BY p.id ASC")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<PaymentExportRow> streamForExport(@Param("landlordId") Long landlordId,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+}
@@ -3,8 +3,22 @@ package com.property.repository;
 
 import com.property.model.PropertyImage;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PropertyImageRepository extends JpaRepository<PropertyImage, Long> {
+    // Reference count for the content-addressed file store (variants belong to their original)
+    long countByImageUrl(String imageUrl);
+
+    @Query("SELECT i.imageUrl FROM PropertyImage i WHERE i.property.id = :propertyId")
+    List<String> findImageUrlsByPropertyId(@Param("propertyId") Long propertyId);
+
+    // Upload reaper: which of these files are still in use
+    @Query("SELECT DISTINCT i.imageUrl FROM PropertyImage i WHERE i.imageUrl IN :urls")
+    List<String> findReferencedUrls(@Param("urls") Collection<String> urls);
 }
\ No newline at end of file
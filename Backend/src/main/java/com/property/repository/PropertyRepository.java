@@ -2,6 +2,8 @@ package com.property.repository;
 
 import com.property.model.Property;
 import com.property.model.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,17 +13,50 @@ import java.util.List;
 
 @Repository
 public interface PropertyRepository extends JpaRepository<Property, Long> {
+
+    // Listing queries join-fetch the landlord; images and amenities are
+    // batch-fetched (see @BatchSize on Property), so a listing costs a fixed
+    // number of statements instead of 1 + 3N.
+    @Override
+    @EntityGraph(attributePaths = "landlord")
+    List<Property> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "landlord")
+    List<Property> findAllById(Iterable<Long> ids);
+
     List<Property> findByLandlord(User landlord);
+
+    @EntityGraph(attributePaths = "landlord")
     List<Property> findByLandlordId(Long landlordId);
+
+    @EntityGraph(attributePaths = "landlord")
     List<Property> findByStatus(Property.Status status);
     
+    @EntityGraph(attributePaths = "landlord")
     @Query("SELECT p FROM Property p WHERE p.city = :city AND p.status = :status")
     List<Property> findByCityAndStatus(@Param("city") String city, @Param("status") Property.Status status);
     
+    @EntityGraph(attributePaths = "landlord")
     @Query("SELECT p FROM Property p WHERE p.rent BETWEEN :minRent AND :maxRent")
     List<Property> findByRentRange(@Param("minRent") java.math.BigDecimal minRent, 
                                   @Param("maxRent") java.math.BigDecimal maxRent);
     
+    // --- Keyset pagination: newest first, "afterId" is the last id of the previous page ---
+    @EntityGraph(attributePaths = "landlord")
+    @Query("SELECT p FROM Property p WHERE (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Property> findPage(@Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "landlord")
+    @Query("SELECT p FROM Property p WHERE p.status = :status AND (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Property> findPageByStatus(@Param("status") Property.Status status,
+                                    @Param("afterId") Long afterId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "landlord")
+    @Query("SELECT p FROM Property p WHERE p.landlord.id = :landlordId AND (:afterId IS NULL OR p.id < :afterId) ORDER BY p.id DESC")
+    List<Property> findPageByLandlordId(@Param("landlordId") Long landlordId,
+                                        @Param("afterId") Long afterId, Pageable pageable);
+
     @Query("SELECT COUNT(p) FROM Property p WHERE p.status = 'AVAILABLE'")
     Long countAvailableProperties();
     
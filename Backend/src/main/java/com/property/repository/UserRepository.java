@@ -1,12 +1,16 @@
 package com.property.repository;
 
+import com.property.dto.UserSummary;
 import com.property.model.Role; // <-- Import the entity
 import com.property.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-// import org.springframework.data.repository.query.Param; // Keep if you use findByRoleName later
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,7 +34,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = 'ROLE_LANDLORD'")
     List<User> findAllLandlords();
 
-    // Optional: If you need a method to find users by any role name string:
-    // @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
-    // List<User> findByRoleName(@Param("roleName") String roleName);
+    // One row per role name with the number of users holding it (admin dashboard)
+    @Query("SELECT r.name AS role, COUNT(DISTINCT u.id) AS total FROM User u JOIN u.roles r GROUP BY r.name")
+    List<RoleCount> countUsersByRole();
+
+    interface RoleCount {
+        String getRole();
+        Long getTotal();
+    }
+
+    // Find users by any role name string (e.g. "ROLE_TENANT")
+    @Query("SELECT u FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    List<User> findByRoleName(@Param("roleName") String roleName);
+
+    // --- Paged admin listings: projections, not entities ---
+    @Query(value = "SELECT new com.property.dto.UserSummary(u.id, u.name, u.email, u.phone, u.profileImage, u.createdAt) " +
+                   "FROM User u",
+           countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserSummary> findAllSummaries(Pageable pageable);
+
+    @Query(value = "SELECT new com.property.dto.UserSummary(u.id, u.name, u.email, u.phone, u.profileImage, u.createdAt) " +
+                   "FROM User u JOIN u.roles r WHERE r.name = :roleName",
+           countQuery = "SELECT COUNT(u) FROM User u JOIN u.roles r WHERE r.name = :roleName")
+    Page<UserSummary> findSummariesByRoleName(@Param("roleName") String roleName, Pageable pageable);
+
+    @Query("SELECT u.id AS userId, r.name AS role FROM User u JOIN u.roles r WHERE u.id IN :userIds")
+    List<UserRoleName> findRoleNamesByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    interface UserRoleName {
+        Long getUserId();
+        String getRole();
+    }
+
+    // Reference count for the content-addressed file store
+    long countByProfileImage(String profileImage);
+
+    @Query("SELECT DISTINCT u.profileImage FROM User u WHERE u.profileImage IN :urls")
+    List<String> findReferencedProfileImages(@Param("urls") Collection<String> urls);
 }
\ No newline at end of file
@@ -1,23 +1,35 @@
 package com.property.security;
 
 import com.property.service.CustomUserDetailsService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // EventSource cannot set headers, so the stream may pass its token as a query parameter
+    private static final String NOTIFICATION_STREAM_PATH = "/api/notifications/stream";
+
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
     
@@ -31,26 +43,73 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         String token = getTokenFromRequest(request);
+        Claims claims = StringUtils.hasText(token) ? tokenProvider.parseToken(token) : null;
 
-        if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-            String username = tokenProvider.getUsernameFromToken(token);
+        if (claims != null) {
+            UserDetails userDetails = resolvePrincipal(claims);
 
-            UserDetails userDetails = customUserDetailsService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken authenticationToken = 
-                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-            authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            if (userDetails != null) {
+                UsernamePasswordAuthenticationToken authenticationToken = 
+                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-            SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the principal straight from the token claims. Tokens issued before
+     * user id and roles were embedded fall back to a full user lookup.
+     * Returns null if the roles in the token no longer match the user's roles.
+     */
+    private UserDetails resolvePrincipal(Claims claims) {
+        Long userId = claims.get(JwtTokenProvider.CLAIM_USER_ID, Long.class);
+        Object rolesClaim = claims.get(JwtTokenProvider.CLAIM_ROLES);
+
+        if (userId == null || !(rolesClaim instanceof Collection<?> rawRoles)) {
+            return customUserDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        List<String> roles = rawRoles.stream().map(String::valueOf).collect(Collectors.toList());
+        if (!isCurrent(userId, claims.getSubject(), roles)) {
+            return null;
+        }
+
+        List<SimpleGrantedAuthority> authorities = roles.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+        return new UserPrincipal(userId, claims.getSubject(), null, authorities);
+    }
+
+    /**
+     * Checks the token against the user as of at most jwt.role-check-ttl ago:
+     * it must still exist with the same id and exactly the roles the token
+     * was issued with.
+     */
+    private boolean isCurrent(Long userId, String email, List<String> tokenRoles) {
+        UserPrincipal current;
+        try {
+            current = customUserDetailsService.loadCurrentUser(email);
+        } catch (UsernameNotFoundException ex) {
+            return false;
+        }
+        Set<String> currentRoles = current.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        return current.getId().equals(userId) && currentRoles.equals(new HashSet<>(tokenRoles));
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
             return bearerToken.substring(7);
         }
+        if (NOTIFICATION_STREAM_PATH.equals(request.getServletPath())) {
+            return request.getParameter("access_token");
+        }
         return null;
     }
-}
\ No newline at end of file
+}
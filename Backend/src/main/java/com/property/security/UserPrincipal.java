@@ -0,0 +1,25 @@
+package com.property.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Authenticated user as seen by Spring Security. Carries the database id so
+ * request handling can identify the user without looking them up by email.
+ */
+public class UserPrincipal extends User {
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String email, String password,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(email, password != null ? password : "", authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
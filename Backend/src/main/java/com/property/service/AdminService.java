@@ -1,22 +1,28 @@
 package com.property.service;
 
-import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.property.dto.AdminStatsDto;
 import com.property.dto.CreateTenantRequest;
+import com.property.dto.RentRollResult;
+import com.property.dto.UploadReapReport;
 import com.property.dto.UserResponse;
+import com.property.dto.UserSummary;
+import com.property.event.UserChangedEvent;
 import com.property.model.Role; // <-- NEW ENTITY
 import com.property.model.User;
-import com.property.repository.LeaseRepository;
-import com.property.repository.MaintenanceRequestRepository;
-import com.property.repository.PaymentRepository;
-import com.property.repository.PropertyRepository;
 import com.property.repository.RoleRepository; // <-- NEW REPO
 import com.property.repository.UserRepository;
 
@@ -27,12 +33,13 @@ import lombok.RequiredArgsConstructor;
 public class AdminService {
 
     private final UserRepository userRepository;
-    private final PropertyRepository propertyRepository;
-    private final LeaseRepository leaseRepository;
-    private final PaymentRepository paymentRepository;
-    private final MaintenanceRequestRepository maintenanceRequestRepository;
     private final RoleRepository roleRepository; // <-- Injected
     private final PasswordEncoder passwordEncoder;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final AdminStatsTracker adminStatsTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RentRollService rentRollService;
+    private final UploadReaper uploadReaper;
 
     // ===========================================================
     // 1️⃣ CREATE TENANT ACCOUNT
@@ -53,40 +60,37 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("Error: Role 'ROLE_TENANT' not found."));
         tenant.setRoles(Set.of(tenantRole));
 
-        return userRepository.save(tenant);
+        User savedTenant = userRepository.save(tenant);
+        eventPublisher.publishEvent(new UserChangedEvent(savedTenant.getId(), null, roleNames(savedTenant)));
+        return savedTenant;
     }
 
     // ===========================================================
     // 2️⃣ ADMIN DASHBOARD STATS
     // ===========================================================
+    // Served from the in-memory snapshot; see AdminStatsTracker
     public AdminStatsDto getAdminStats() {
-        long totalUsers = userRepository.count();
-        long totalLandlords = userRepository.findAll().stream()
-                .filter(u -> u.getRoles().stream()
-                        .anyMatch(r -> r.getName().equals("ROLE_LANDLORD")))
-                .count();
-        long totalTenants = userRepository.findAll().stream()
-                .filter(u -> u.getRoles().stream()
-                        .anyMatch(r -> r.getName().equals("ROLE_TENANT")))
-                .count();
-        long totalProperties = propertyRepository.count();
-        long activeLeases = leaseRepository.findByStatus(com.property.model.Lease.Status.ACTIVE).size();
-        Long pendingPayments = paymentRepository.countPendingPayments();
-        Long maintenanceRequests = maintenanceRequestRepository.countPendingRequests();
-
-        BigDecimal totalRevenue = paymentRepository.getTotalPaidAmount();
-        if (totalRevenue == null) totalRevenue = BigDecimal.ZERO;
-
-        return AdminStatsDto.builder()
-                .totalUsers(totalUsers)
-                .totalLandlords(totalLandlords)
-                .totalTenants(totalTenants)
-                .totalProperties(totalProperties)
-                .activeLeases(activeLeases)
-                .pendingPayments(pendingPayments)
-                .maintenanceRequests(maintenanceRequests)
-                .totalRevenue(totalRevenue)
-                .build();
+        return adminStatsTracker.getStats();
+    }
+
+    /**
+     * Bills all active leases for the given month (yyyy-MM), or the current month if none is given.
+     */
+    public RentRollResult generateRentRoll(String period) {
+        YearMonth month;
+        try {
+            month = period == null || period.isBlank() ? YearMonth.now() : YearMonth.parse(period.trim());
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid period, expected yyyy-MM");
+        }
+        return rentRollService.generate(month);
+    }
+
+    /**
+     * Finds upload files nothing refers to any more, deleting them unless it is a dry run.
+     */
+    public UploadReapReport reapUploads(boolean dryRun) {
+        return uploadReaper.reap(dryRun);
     }
 
     // ===========================================================
@@ -99,13 +103,19 @@ public class AdminService {
     }
 
     public List<UserResponse> getUsersByRole(String roleName) {
-        return userRepository.findAll().stream()
-                .filter(u -> u.getRoles().stream()
-                        .anyMatch(r -> r.getName().equals(roleName.toUpperCase())))
+        return userRepository.findByRoleName(normalizeRoleName(roleName)).stream()
                 .map(UserResponse::fromUser)
                 .collect(Collectors.toList());
     }
 
+    public Page<UserSummary> getUsers(Pageable pageable) {
+        return withRoles(userRepository.findAllSummaries(pageable));
+    }
+
+    public Page<UserSummary> getUsersByRole(String roleName, Pageable pageable) {
+        return withRoles(userRepository.findSummariesByRoleName(normalizeRoleName(roleName), pageable));
+    }
+
     public UserResponse updateUserRole(Long userId, String newRoleName) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -113,15 +123,21 @@ public class AdminService {
         Role newRole = roleRepository.findByName(newRoleName.toUpperCase())
                 .orElseThrow(() -> new RuntimeException("Error: Role '" + newRoleName + "' not found."));
 
+        Set<String> previousRoles = roleNames(user);
         user.setRoles(Set.of(newRole));
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, previousRoles, roleNames(savedUser)));
+        customUserDetailsService.evict(user.getEmail()); // tokens carrying the old role stop working right away
         return UserResponse.fromUser(savedUser);
     }
 
     public void deleteUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
+        Set<String> previousRoles = roleNames(user);
         userRepository.delete(user);
+        customUserDetailsService.evict(user.getEmail());
+        eventPublisher.publishEvent(new UserChangedEvent(userId, previousRoles, null));
     }
 
     public UserResponse getUserById(Long userId) {
@@ -129,4 +145,32 @@ public class AdminService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         return UserResponse.fromUser(user);
     }
+
+    private static Set<String> roleNames(User user) {
+        if (user.getRoles() == null) {
+            return Set.of();
+        }
+        return user.getRoles().stream()
+                .map(Role::getName)
+                .collect(Collectors.toSet());
+    }
+
+    // Accepts "ROLE_TENANT", "role_tenant" or just "tenant"
+    private static String normalizeRoleName(String roleName) {
+        String upper = roleName.toUpperCase();
+        return upper.startsWith("ROLE_") ? upper : "ROLE_" + upper;
+    }
+
+    // One extra query per page fills in the roles of every user on it
+    private Page<UserSummary> withRoles(Page<UserSummary> page) {
+        if (page.isEmpty()) {
+            return page;
+        }
+        Map<Long, UserSummary> byId = page.getContent().stream()
+                .collect(Collectors.toMap(UserSummary::getId, Function.identity()));
+        for (UserRepository.UserRoleName row : userRepository.findRoleNamesByUserIds(byId.keySet())) {
+            byId.get(row.getUserId()).getRoles().add(row.getRole());
+        }
+        return page;
+    }
 }
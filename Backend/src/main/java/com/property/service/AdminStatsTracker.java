@@ -0,0 +1,285 @@
+package com.property.service;
+
+import com.property.dto.AdminStatsDto;
+import com.property.event.LeaseChangedEvent;
+import com.property.event.MaintenanceChangedEvent;
+import com.property.event.PaymentChangedEvent;
+import com.property.event.PropertyChangedEvent;
+import com.property.event.UserChangedEvent;
+import com.property.model.Lease;
+import com.property.model.MaintenanceRequest;
+import com.property.model.Payment;
+import com.property.repository.LeaseRepository;
+import com.property.repository.MaintenanceRequestRepository;
+import com.property.repository.PaymentRepository;
+import com.property.repository.PropertyRepository;
+import com.property.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the admin dashboard figures in memory so /api/admin/stats is O(1).
+ * <p>
+ * The snapshot is seeded from aggregate queries, then adjusted by the domain
+ * events the services publish. Events are applied after their transaction
+ * commits. A scheduled reconciliation re-derives every figure from the
+ * database and replaces the snapshot, which corrects any drift (for example
+ * from cascaded deletes that publish no events of their own). Deleting a user
+ * marks the snapshot stale, and a short background check reconciles it soon
+ * after instead of recounting on the request thread.
+ */
+@Component
+public class AdminStatsTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminStatsTracker.class);
+
+    private static final String ROLE_LANDLORD = "ROLE_LANDLORD";
+    private static final String ROLE_TENANT = "ROLE_TENANT";
+
+    private final UserRepository userRepository;
+    private final PropertyRepository propertyRepository;
+    private final LeaseRepository leaseRepository;
+    private final PaymentRepository paymentRepository;
+    private final MaintenanceRequestRepository maintenanceRequestRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Object reconcileLock = new Object();
+    // Set by changes the events cannot describe; cleared when a reconciliation starts
+    private final AtomicBoolean stale = new AtomicBoolean();
+
+    // Guarded by "this"
+    private boolean initialized;
+    // Non-null while reconcile() is querying: deltas to re-apply on top of its result
+    private List<Runnable> deltasSinceSnapshot;
+    private long totalUsers;
+    private long totalLandlords;
+    private long totalTenants;
+    private long totalProperties;
+    private long activeLeases;
+    private long pendingPayments;
+    private long pendingMaintenance;
+    private BigDecimal totalRevenue = BigDecimal.ZERO;
+
+    public AdminStatsTracker(UserRepository userRepository,
+                             PropertyRepository propertyRepository,
+                             LeaseRepository leaseRepository,
+                             PaymentRepository paymentRepository,
+                             MaintenanceRequestRepository maintenanceRequestRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.propertyRepository = propertyRepository;
+        this.leaseRepository = leaseRepository;
+        this.paymentRepository = paymentRepository;
+        this.maintenanceRequestRepository = maintenanceRequestRepository;
+        // A template rather than @Transactional, so the queries share one snapshot
+        // whether reconcile() is called through the proxy or from getStats()
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public AdminStatsDto getStats() {
+        synchronized (this) {
+            if (initialized) {
+                return snapshot();
+            }
+        }
+        reconcile();
+        synchronized (this) {
+            return snapshot();
+        }
+    }
+
+    /**
+     * Re-derives every figure from the database. Events applied while the
+     * queries run are recorded and re-applied on top of the fresh figures,
+     * so a busy system is reconciled too instead of skipping the run.
+     */
+    @Scheduled(initialDelayString = "${app.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        synchronized (reconcileLock) {
+            stale.set(false);
+            synchronized (this) {
+                deltasSinceSnapshot = new ArrayList<>();
+            }
+            AdminStatsDto fresh;
+            try {
+                fresh = readOnlyTransaction.execute(status -> computeFromDatabase());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    deltasSinceSnapshot = null;
+                }
+                stale.set(true);
+                throw e;
+            }
+            replace(fresh);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.stats.stale-check-ms:5000}")
+    public void reconcileIfStale() {
+        if (stale.get()) {
+            reconcile();
+        }
+    }
+
+    private synchronized void replace(AdminStatsDto fresh) {
+        List<Runnable> deltas = deltasSinceSnapshot;
+        deltasSinceSnapshot = null;
+        AdminStatsDto before = snapshot();
+        boolean wasInitialized = initialized;
+
+        totalUsers = fresh.getTotalUsers();
+        totalLandlords = fresh.getTotalLandlords();
+        totalTenants = fresh.getTotalTenants();
+        totalProperties = fresh.getTotalProperties();
+        activeLeases = fresh.getActiveLeases();
+        pendingPayments = fresh.getPendingPayments();
+        pendingMaintenance = fresh.getMaintenanceRequests();
+        totalRevenue = fresh.getTotalRevenue();
+        initialized = true;
+        // Only an event whose commit the queries saw but whose listener ran after
+        // recording began is counted twice; that is the gap between a commit and
+        // its listeners, and the next run corrects it.
+        deltas.forEach(Runnable::run);
+
+        if (wasInitialized && !before.equals(snapshot())) {
+            log.info("Admin stats drift corrected: {} -> {} ({} events re-applied)", before, snapshot(), deltas.size());
+        }
+    }
+
+    // --- domain events ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.currentRoles() == null) {
+            // Deleting a user cascades to their properties and leases without
+            // further events, so those figures are recounted in the background
+            stale.set(true);
+        }
+        int users = event.previousRoles() == null ? 1 : event.currentRoles() == null ? -1 : 0;
+        int landlords = roleDelta(event.previousRoles(), event.currentRoles(), ROLE_LANDLORD);
+        int tenants = roleDelta(event.previousRoles(), event.currentRoles(), ROLE_TENANT);
+        apply(() -> {
+            totalUsers += users;
+            totalLandlords += landlords;
+            totalTenants += tenants;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        int properties = event.previousStatus() == null ? 1 : event.currentStatus() == null ? -1 : 0;
+        apply(() -> totalProperties += properties);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaseChanged(LeaseChangedEvent event) {
+        int leases = statusDelta(event.previousStatus(), event.currentStatus(), Lease.Status.ACTIVE);
+        apply(() -> activeLeases += leases);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        int pending = statusDelta(event.previousStatus(), event.currentStatus(), Payment.Status.PENDING);
+        int paidDelta = statusDelta(event.previousStatus(), event.currentStatus(), Payment.Status.PAID);
+        BigDecimal revenue = paidDelta != 0 && event.amount() != null
+                ? event.amount().multiply(BigDecimal.valueOf(paidDelta))
+                : BigDecimal.ZERO;
+        apply(() -> {
+            pendingPayments += pending;
+            totalRevenue = totalRevenue.add(revenue);
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMaintenanceChanged(MaintenanceChangedEvent event) {
+        int maintenance = statusDelta(event.previousStatus(), event.currentStatus(),
+                MaintenanceRequest.Status.PENDING);
+        apply(() -> pendingMaintenance += maintenance);
+    }
+
+    // --- helpers ---
+
+    private synchronized void apply(Runnable delta) {
+        delta.run();
+        if (deltasSinceSnapshot != null) {
+            deltasSinceSnapshot.add(delta);
+        }
+    }
+
+    private AdminStatsDto snapshot() {
+        return AdminStatsDto.builder()
+                .totalUsers(totalUsers)
+                .totalLandlords(totalLandlords)
+                .totalTenants(totalTenants)
+                .totalProperties(totalProperties)
+                .activeLeases(activeLeases)
+                .pendingPayments(pendingPayments)
+                .maintenanceRequests(pendingMaintenance)
+                .totalRevenue(totalRevenue)
+                .build();
+    }
+
+    // Every figure comes from a COUNT/SUM query, so the cost is a fixed
+    // number of round trips no matter how many rows the tables hold.
+    private AdminStatsDto computeFromDatabase() {
+        long users = userRepository.count();
+
+        long landlords = 0;
+        long tenants = 0;
+        for (UserRepository.RoleCount roleCount : userRepository.countUsersByRole()) {
+            if (ROLE_LANDLORD.equals(roleCount.getRole())) {
+                landlords = roleCount.getTotal();
+            } else if (ROLE_TENANT.equals(roleCount.getRole())) {
+                tenants = roleCount.getTotal();
+            }
+        }
+
+        long properties = propertyRepository.count();
+        long leases = leaseRepository.countByStatus(Lease.Status.ACTIVE);
+        Long maintenance = maintenanceRequestRepository.countPendingRequests();
+
+        long pending = 0;
+        BigDecimal revenue = BigDecimal.ZERO;
+        for (PaymentRepository.StatusTotal statusTotal : paymentRepository.summarizeByStatus()) {
+            if (statusTotal.getStatus() == Payment.Status.PENDING) {
+                pending = statusTotal.getTotal();
+            } else if (statusTotal.getStatus() == Payment.Status.PAID) {
+                revenue = statusTotal.getAmount();
+            }
+        }
+
+        return AdminStatsDto.builder()
+                .totalUsers(users)
+                .totalLandlords(landlords)
+                .totalTenants(tenants)
+                .totalProperties(properties)
+                .activeLeases(leases)
+                .pendingPayments(pending)
+                .maintenanceRequests(maintenance != null ? maintenance : 0L)
+                .totalRevenue(revenue)
+                .build();
+    }
+
+    private static <S> int statusDelta(S previous, S current, S tracked) {
+        return (current == tracked ? 1 : 0) - (previous == tracked ? 1 : 0);
+    }
+
+    private static int roleDelta(Set<String> previous, Set<String> current, String role) {
+        int had = previous != null && previous.contains(role) ? 1 : 0;
+        int has = current != null && current.contains(role) ? 1 : 0;
+        return has - had;
+    }
+}
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -15,6 +16,7 @@ import com.property.dto.LoginRequest;
 import com.property.dto.LoginResponse;
 import com.property.dto.SignupRequest;
 import com.property.dto.UserResponse;
+import com.property.event.UserChangedEvent;
 import com.property.model.Role;
 import com.property.model.User;
 import com.property.repository.RoleRepository;
@@ -30,6 +32,7 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtTokenProvider tokenProvider;
+    private final ApplicationEventPublisher eventPublisher;
 
     // --- Use Constructor Injection ---
     @Autowired
@@ -37,12 +40,14 @@ public class AuthService {
                        RoleRepository roleRepository,
                        PasswordEncoder passwordEncoder,
                        AuthenticationManager authenticationManager,
-                       JwtTokenProvider tokenProvider) {
+                       JwtTokenProvider tokenProvider,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.tokenProvider = tokenProvider;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -96,7 +101,9 @@ public class AuthService {
                 .build();
 
         User savedUser = userRepository.save(user);
-        return new UserResponse(savedUser);
+        UserResponse response = new UserResponse(savedUser);
+        eventPublisher.publishEvent(new UserChangedEvent(savedUser.getId(), null, response.getRoles()));
+        return response;
     }
 
     /**
@@ -1,7 +1,13 @@
 package com.property.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.property.model.User;
 import com.property.repository.UserRepository;
+import com.property.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,6 +15,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -17,20 +24,73 @@ public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    /**
+     * Users by email, so logins and JWT role checks do not hit MySQL each time.
+     * Entries are evicted explicitly when a user's roles or profile change,
+     * and expire after the TTL as a safety net. Hit/miss counts are published
+     * under the "userDetails" cache name (see /actuator/metrics/cache.gets).
+     */
+    private final Cache<String, CachedUser> userCache;
+
+    // How stale the answer to "is this token's user still valid" may be
+    private final long revocationCheckNanos;
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.security.user-cache.max-entries:10000}") long maxEntries,
+                                    @Value("${app.security.user-cache.ttl:5m}") Duration ttl,
+                                    @Value("${jwt.role-check-ttl:30s}") Duration revocationCheckTtl) {
         this.userRepository = userRepository;
+        this.revocationCheckNanos = revocationCheckTtl.toNanos();
+        this.userCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache, "userDetails");
     }
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
+        return copyOf(userCache.get(email, this::loadFromDatabase).principal());
+    }
+
+    /**
+     * Like {@link #loadUserByUsername}, but never answers from an entry older
+     * than {@code jwt.role-check-ttl}, so that a token of a deleted or demoted
+     * user stops working within that time even if an eviction was missed.
+     */
+    public UserPrincipal loadCurrentUser(String email) throws UsernameNotFoundException {
+        CachedUser cached = userCache.getIfPresent(email);
+        if (cached == null || System.nanoTime() - cached.loadedAt() > revocationCheckNanos) {
+            cached = loadFromDatabase(email);
+            userCache.put(email, cached);
+        }
+        return copyOf(cached.principal());
+    }
+
+    public void evict(String email) {
+        if (email != null) {
+            userCache.invalidate(email);
+        }
+    }
+
+    private CachedUser loadFromDatabase(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
-        return new org.springframework.security.core.userdetails.User(
+        return new CachedUser(new UserPrincipal(
+                user.getId(),
                 user.getEmail(),
                 user.getPassword(),
                 getAuthorities(user)
-        );
+        ), System.nanoTime());
+    }
+
+    // Hand out a copy: Spring Security erases credentials on the principal
+    // it returns from a login, which must not blank the cached entry.
+    private static UserPrincipal copyOf(UserPrincipal cached) {
+        return new UserPrincipal(cached.getId(), cached.getUsername(), cached.getPassword(), cached.getAuthorities());
     }
 
     private Collection<? extends GrantedAuthority> getAuthorities(User user) {
@@ -41,4 +101,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .map(role -> new SimpleGrantedAuthority(role.getName()))
                 .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private record CachedUser(UserPrincipal principal, long loadedAt) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.property.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.property.dto.LeaseExportRow;
+import com.property.dto.PaymentExportRow;
+import com.property.repository.LeaseRepository;
+import com.property.repository.PaymentRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes payment and lease history straight from a database cursor to the
+ * response, one row at a time, so an export of millions of rows runs in
+ * constant memory. Rows are read as flat projections (no entities) and the
+ * whole export runs in one read-only transaction that keeps the cursor open.
+ * Because that pins a pooled connection for the whole download, only a few
+ * exports may run at once; callers reserve a slot with {@link #reserve}.
+ */
+@Service
+public class ExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<String> PAYMENT_COLUMNS = List.of(
+            "id", "leaseId", "propertyId", "propertyTitle", "tenantId", "tenantName", "tenantEmail",
+            "amount", "dueDate", "paidDate", "status", "paymentMethod", "notes", "createdAt");
+
+    private static final List<String> LEASE_COLUMNS = List.of(
+            "id", "propertyId", "propertyTitle", "propertyCity", "tenantId", "tenantName", "tenantEmail",
+            "startDate", "endDate", "rentAmount", "securityDeposit", "status", "createdAt");
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return Format.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final LeaseRepository leaseRepository;
+    private final ObjectMapper objectMapper;
+    private final Semaphore slots;
+
+    public ExportService(PaymentRepository paymentRepository,
+                         LeaseRepository leaseRepository,
+                         ObjectMapper objectMapper,
+                         @Value("${app.exports.max-concurrent:3}") int maxConcurrent) {
+        this.paymentRepository = paymentRepository;
+        this.leaseRepository = leaseRepository;
+        this.objectMapper = objectMapper;
+        this.slots = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Takes an export slot, or throws {@link RejectedExecutionException} when
+     * all are in use. The returned body frees the slot once it has been written.
+     */
+    public StreamingResponseBody reserve(StreamingResponseBody export) {
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Too many exports are running, please try again shortly");
+        }
+        return out -> {
+            try {
+                export.writeTo(out);
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * Payments due within the range (either bound may be null), optionally for one landlord.
+     */
+    @Transactional(readOnly = true)
+    public void exportPayments(Long landlordId, LocalDate from, LocalDate to, Format format, OutputStream out)
+            throws IOException {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamForExport(landlordId, from, to)) {
+            write(rows, format, PAYMENT_COLUMNS, row -> new Object[]{
+                    row.id(), row.leaseId(), row.propertyId(), row.propertyTitle(),
+                    row.tenantId(), row.tenantName(), row.tenantEmail(),
+                    row.amount(), row.dueDate(), row.paidDate(), row.status(),
+                    row.paymentMethod(), row.notes(), row.createdAt()}, out);
+        }
+    }
+
+    /**
+     * Leases whose term overlaps the range (either bound may be null), optionally for one landlord.
+     */
+    @Transactional(readOnly = true)
+    public void exportLeases(Long landlordId, LocalDate from, LocalDate to, Format format, OutputStream out)
+            throws IOException {
+        try (Stream<LeaseExportRow> rows = leaseRepository.streamForExport(landlordId, from, to)) {
+            write(rows, format, LEASE_COLUMNS, row -> new Object[]{
+                    row.id(), row.propertyId(), row.propertyTitle(), row.propertyCity(),
+                    row.tenantId(), row.tenantName(), row.tenantEmail(),
+                    row.startDate(), row.endDate(), row.rentAmount(), row.securityDeposit(),
+                    row.status(), row.createdAt()}, out);
+        }
+    }
+
+    private <T> void write(Stream<T> rows, Format format, List<String> columns,
+                           Function<T, Object[]> values, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        if (format == Format.NDJSON) {
+            writeNdjson(rows, writer);
+        } else {
+            writeCsv(rows, columns, values, writer);
+        }
+        writer.flush();
+    }
+
+    private <T> void writeCsv(Stream<T> rows, List<String> columns,
+                              Function<T, Object[]> values, Writer writer) throws IOException {
+        writer.write(String.join(",", columns));
+        writer.write("\r\n");
+        Iterator<T> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            Object[] fields = values.apply(iterator.next());
+            for (int i = 0; i < fields.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeCsvField(fields[i], writer);
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, Writer writer) throws IOException {
+        // The response stream is closed by the container, not by Jackson
+        SequenceWriter sequence = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(writer);
+        Iterator<T> iterator = rows.iterator();
+        boolean empty = !iterator.hasNext();
+        while (iterator.hasNext()) {
+            sequence.write(iterator.next());
+        }
+        sequence.close();
+        if (!empty) {
+            writer.write('\n');
+        }
+    }
+
+    static void writeCsvField(Object value, Writer writer) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        // Keep spreadsheets from evaluating user-entered text as a formula (a leading tab
+        // or carriage return is skipped by some, exposing the formula behind it)
+        if (!text.isEmpty() && !(value instanceof Number) && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+}
@@ -1,54 +1,631 @@
 package com.property.service;
 
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.util.UUID;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
 
+/**
+ * Content-addressed store for uploaded files.
+ * <p>
+ * Every file is named after the SHA-256 of its bytes and kept under
+ * {@code uploads/objects/ab/cd/<hash>.<ext>}, so the same photo uploaded to
+ * several properties (or as a profile picture) is stored once, and no
+ * directory ever holds more than a small slice of the files. Files are
+ * written to a temp directory first and renamed into place, so a reader
+ * never sees a partial file. Nothing tracks usage explicitly: a file is
+ * referenced while a {@code PropertyImage} row or a user's
+ * {@code profileImage} points at it, and {@link #release} only deletes it
+ * once a query finds no such reference.
+ */
 @Service
 public class FileStorageService {
 
+    private static final Logger log = LoggerFactory.getLogger(FileStorageService.class);
+
+    // Public URLs of stored files start with this; UploadController serves /uploads/**
+    // and SecurityConfig lets anyone read it
+    private static final String URL_ROOT = "/uploads";
+    private static final String OBJECTS_DIR = "objects";
+    // A file this fresh may be about to be referenced by an upload that deduplicated onto it
+    private static final Duration RELEASE_GRACE = Duration.ofMinutes(10);
+    // Refuse to decode anything larger; a tiny file can claim enormous dimensions
+    private static final long MAX_IMAGE_PIXELS = 50_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    /**
+     * Pre-scaled copies written next to every uploaded photo, largest first.
+     * Each is bounded by its longest edge and never upscaled.
+     */
+    public enum ImageVariant {
+        FULL("full", 1600),
+        CARD("card", 640),
+        THUMBNAIL("thumb", 240);
+
+        private final String suffix;
+        private final int maxEdge;
+
+        ImageVariant(String suffix, int maxEdge) {
+            this.suffix = suffix;
+            this.maxEdge = maxEdge;
+        }
+    }
+
+    /**
+     * URLs of a stored photo. A variant the original is already small enough
+     * for points at the next larger image instead of a duplicate file.
+     */
+    public record StoredImage(String url, String fullUrl, String cardUrl, String thumbnailUrl) {
+    }
+
     // Define the root upload directory
     private final Path fileStorageLocation;
-    
-    // --- THIS IS THE FIX ---
-    // This 'uploads' string MUST match the WebConfig addResourceHandler
-    private final String rootUploadsDir = "uploads"; 
-    // --- END FIX ---
-
-    public FileStorageService() {
-        this.fileStorageLocation = Paths.get(rootUploadsDir).toAbsolutePath().normalize();
+    private final Path objectsLocation;
+    private final Path tempLocation;
+
+    private final PropertyImageRepository propertyImageRepository;
+    private final UserRepository userRepository;
+    // Striped locks so two uploads of the same photo don't both write its variants,
+    // and a release never deletes a photo that an upload is reusing
+    private final Object[] objectLocks = new Object[64];
+
+    @Autowired
+    public FileStorageService(PropertyImageRepository propertyImageRepository, UserRepository userRepository) {
+        this(propertyImageRepository, userRepository, Paths.get("uploads"));
+    }
+
+    // The directory is only chosen explicitly by tests; URLs always start with /uploads
+    FileStorageService(PropertyImageRepository propertyImageRepository, UserRepository userRepository, Path root) {
+        this.propertyImageRepository = propertyImageRepository;
+        this.userRepository = userRepository;
+        for (int i = 0; i < objectLocks.length; i++) {
+            objectLocks[i] = new Object();
+        }
+        this.fileStorageLocation = root.toAbsolutePath().normalize();
+        this.objectsLocation = this.fileStorageLocation.resolve(OBJECTS_DIR);
+        this.tempLocation = this.objectsLocation.resolve(".tmp");
         try {
-            Files.createDirectories(this.fileStorageLocation);
+            Files.createDirectories(this.tempLocation);
         } catch (Exception ex) {
             throw new RuntimeException("Could not create the directory where the uploaded files will be stored.", ex);
         }
     }
 
-    public String storeFile(MultipartFile file, String subDirectory) throws IOException {
-        // Create the specific subdirectory (e.g., uploads/properties/1)
-        Path targetLocation = this.fileStorageLocation.resolve(subDirectory).normalize();
-        Files.createDirectories(targetLocation);
+    /**
+     * Stores a single image as uploaded (no variants), hashing it while it is copied.
+     */
+    public String storeImage(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile(tempLocation, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String extension = detectImageExtension(temp);
+            if (extension == null) {
+                throw new RuntimeException("Only JPEG, PNG, GIF or WebP images are allowed");
+            }
+            String url = objectUrl(HexFormat.of().formatHex(digest.digest()), extension);
+            synchronized (lockFor(url)) {
+                place(temp, url);
+            }
+            return url;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Moves a spooled photo into the store and makes sure its {@link ImageVariant}s
+     * exist. A photo that is already stored is only decoded again if some of its
+     * variants are missing (for example because its first upload failed part-way,
+     * or happened while another was still writing them). Variants are
+     * turned upright according to the photo's EXIF orientation, since they are
+     * written without its metadata. Images ImageIO cannot decode (WebP, CMYK
+     * JPEGs, ...) are stored without variants. {@code extension} includes the
+     * leading dot.
+     */
+    public StoredImage storeImage(Path source, String extension) throws IOException {
+        String url = objectUrl(hash(source), extension);
+        synchronized (lockFor(url)) {
+            place(source, url);
+            return ensureVariants(url);
+        }
+    }
+
+    /**
+     * Deletes a stored file and its variants if nothing references it any more.
+     * Files written within the last few minutes are kept, since a concurrent
+     * upload of the same bytes may not have saved its reference yet; the orphan
+     * cleanup removes them later if they stay unreferenced.
+     */
+    public void release(String url) {
+        Path path = pathOf(url);
+        if (path == null || countReferences(url) > 0) {
+            return;
+        }
+        // Held while checking the age too: an upload reusing the photo refreshes it
+        // and its variants under the same lock, so they are either fresh or not reused
+        synchronized (lockFor(url)) {
+            try {
+                if (!Files.exists(path)) {
+                    return;
+                }
+                Instant modified = Files.getLastModifiedTime(path).toInstant();
+                if (modified.isAfter(Instant.now().minus(RELEASE_GRACE))) {
+                    return;
+                }
+                String fileName = path.getFileName().toString();
+                int dot = fileName.lastIndexOf('.');
+                String baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+                try (DirectoryStream<Path> siblings = Files.newDirectoryStream(path.getParent(), baseName + "-*")) {
+                    for (Path variant : siblings) {
+                        Files.deleteIfExists(variant);
+                    }
+                }
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Could not delete {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The file behind a public /uploads/... URL, or null if there is no such
+     * regular file (temp files and anything outside the upload tree included).
+     */
+    public Path resolve(String url) {
+        Path path = pathOf(url);
+        if (path == null || path.startsWith(tempLocation) || !Files.isRegularFile(path)) {
+            return null;
+        }
+        return path;
+    }
+
+    public Path getRoot() {
+        return fileStorageLocation;
+    }
+
+    public boolean isTemporary(Path path) {
+        return path.startsWith(tempLocation);
+    }
+
+    public String urlOf(Path file) {
+        StringBuilder url = new StringBuilder(URL_ROOT);
+        for (Path part : fileStorageLocation.relativize(file)) {
+            url.append('/').append(part);
+        }
+        return url.toString();
+    }
+
+    /**
+     * URLs whose reference keeps this file alive: the URL itself, or for a
+     * variant ({@code <name>-thumb.jpg}) every possible URL of its original.
+     */
+    public List<String> ownerUrls(String url) {
+        int dot = url.lastIndexOf('.');
+        int dash = url.lastIndexOf('-');
+        if (dot > dash && dash > url.lastIndexOf('/')) {
+            String suffix = url.substring(dash + 1, dot);
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (variant.suffix.equals(suffix)) {
+                    String base = url.substring(0, dash);
+                    List<String> owners = new ArrayList<>();
+                    for (String extension : List.of(".jpg", ".jpeg", ".png", ".gif", ".webp")) {
+                        owners.add(base + extension);
+                    }
+                    return owners;
+                }
+            }
+        }
+        return List.of(url);
+    }
+
+    public long countReferences(String url) {
+        return propertyImageRepository.countByImageUrl(url) + userRepository.countByProfileImage(url);
+    }
+
+    // Trusts the file's leading bytes, not its name or the client's content type
+    public static String detectImageExtension(Path path) throws IOException {
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = Files.newInputStream(path)) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+        if (read >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return ".jpg";
+        }
+        if (read >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G') {
+            return ".png";
+        }
+        if (read >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8') {
+            return ".gif";
+        }
+        if (read >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return ".webp";
+        }
+        return null;
+    }
+
+    private String objectUrl(String hash, String extension) {
+        return URL_ROOT + "/" + OBJECTS_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4)
+                + "/" + hash + extension;
+    }
+
+    private Object lockFor(String url) {
+        return objectLocks[Math.floorMod(url.hashCode(), objectLocks.length)];
+    }
+
+    // Moves the file to its content address, or drops it if those bytes are already
+    // stored. The caller holds the object's lock.
+    private void place(Path source, String url) throws IOException {
+        Path target = pathOf(url);
+        if (Files.exists(target)) {
+            // Refresh the timestamp so release() and the upload reaper leave it alone
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            Files.deleteIfExists(source);
+            return;
+        }
+        moveIntoPlace(source, target);
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Source is on another file system: copy next to the target first, then rename
+            Path temp = Files.createTempFile(tempLocation, "move-", ".tmp");
+            try {
+                Files.copy(source, temp, StandardCopyOption.REPLACE_EXISTING);
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                Files.deleteIfExists(source);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    // Writes the variants the photo is large enough for and doesn't have yet. The
+    // caller holds the photo's lock. A failure removes only the variants
+    // written here: the original may already be shared with another upload, and
+    // release() and the upload reaper decide when it goes.
+    private StoredImage ensureVariants(String url) throws IOException {
+        Path original = pathOf(url);
+        String baseName = url.substring(0, url.lastIndexOf('.'));
+        int longestEdge = readLongestEdge(original);
+
+        String[] urls = new String[ImageVariant.values().length];
+        boolean missing = false;
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (longestEdge > variant.maxEdge) {
+                urls[variant.ordinal()] = existingVariant(baseName, variant);
+                missing |= urls[variant.ordinal()] == null;
+            }
+        }
+        if (missing) {
+            writeVariants(original, baseName, urls);
+        }
+
+        // A variant the photo is too small for (or that could not be decoded) uses the next larger image
+        String previous = url;
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (urls[variant.ordinal()] == null) {
+                urls[variant.ordinal()] = previous;
+            }
+            previous = urls[variant.ordinal()];
+        }
+        return new StoredImage(url, urls[ImageVariant.FULL.ordinal()], urls[ImageVariant.CARD.ordinal()],
+                urls[ImageVariant.THUMBNAIL.ordinal()]);
+    }
+
+    // Fills in the null entries of urls that the decoded photo is large enough for
+    private void writeVariants(Path original, String baseName, String[] urls) throws IOException {
+        BufferedImage image = readForScaling(original, ImageVariant.FULL.maxEdge);
+        if (image == null) {
+            return;
+        }
+        boolean alpha = image.getColorModel().hasAlpha();
+        image = orient(image, readExifOrientation(original), alpha);
+        String variantExtension = alpha ? ".png" : ".jpg";
+
+        List<Path> written = new ArrayList<>();
+        try {
+            for (ImageVariant variant : ImageVariant.values()) {
+                if (Math.max(image.getWidth(), image.getHeight()) <= variant.maxEdge) {
+                    continue;
+                }
+                // Each size is scaled from the previous one, so present variants are still computed
+                image = scale(image, variant.maxEdge, alpha);
+                if (urls[variant.ordinal()] != null) {
+                    continue;
+                }
+                String variantUrl = baseName + "-" + variant.suffix + variantExtension;
+                Path temp = Files.createTempFile(tempLocation, "variant-", ".tmp");
+                try {
+                    write(image, temp, alpha);
+                    moveIntoPlace(temp, pathOf(variantUrl));
+                } finally {
+                    Files.deleteIfExists(temp);
+                }
+                written.add(pathOf(variantUrl));
+                urls[variant.ordinal()] = variantUrl;
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path path : written) {
+                Files.deleteIfExists(path);
+            }
+            throw e;
+        }
+    }
+
+    // A variant found here is reused, so its timestamp is refreshed like the original's
+    // in place(); otherwise the reaper could still delete it as an old orphan
+    private String existingVariant(String baseName, ImageVariant variant) throws IOException {
+        for (String extension : List.of(".jpg", ".png")) {
+            String variantUrl = baseName + "-" + variant.suffix + extension;
+            try {
+                Files.setLastModifiedTime(pathOf(variantUrl), FileTime.from(Instant.now()));
+                return variantUrl;
+            } catch (NoSuchFileException e) {
+                // not written (or just reaped); try the other format
+            }
+        }
+        return null;
+    }
+
+    // Maps a public /uploads/... URL back to its file; null for anything outside the upload tree
+    private Path pathOf(String url) {
+        String prefix = URL_ROOT + "/";
+        if (url == null || !url.startsWith(prefix)) {
+            return null;
+        }
+        Path path = this.fileStorageLocation.resolve(url.substring(prefix.length())).normalize();
+        return path.startsWith(this.fileStorageLocation) ? path : null;
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest = sha256();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(path)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Reads only the header; 0 when no reader knows the format, so no variant applies
+    private static int readLongestEdge(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return 0;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return Math.max(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Decodes at most roughly twice the target size by skipping source pixels, so a
+    // 24-megapixel photo never has to be held in memory at full resolution.
+    // Returns null when no reader can decode the image.
+    static BufferedImage readForScaling(Path path, int maxEdge) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_IMAGE_PIXELS) {
+                    throw new IOException("Image dimensions " + width + "x" + height + " are too large");
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (maxEdge * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                try {
+                    return reader.read(0, param);
+                } catch (IOException | RuntimeException e) {
+                    // e.g. "Unsupported Image Type" for CMYK/YCCK JPEGs; the original is still servable
+                    log.info("Could not decode {} for scaling, storing it without variants: {}",
+                            path.getFileName(), e.getMessage());
+                    return null;
+                }
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // The EXIF orientation (1-8) of a JPEG; 1 when it has none or it cannot be read
+    static int readExifOrientation(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                int marker = in.readUnsignedShort();
+                // Metadata segments all come before the first scan
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA || marker == 0xFFD9) {
+                    return 1;
+                }
+                int length = in.readUnsignedShort() - 2;
+                if (length < 0) {
+                    return 1;
+                }
+                if (marker == 0xFFE1) {
+                    int orientation = exifOrientation(in.readNBytes(length));
+                    if (orientation != 0) {
+                        return orientation;
+                    }
+                } else {
+                    in.skipNBytes(length);
+                }
+            }
+        } catch (IOException e) {
+            return 1;
+        }
+    }
 
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    // Orientation tag (0x0112) of IFD0 in an APP1 segment; 0 if this APP1 is not EXIF or has none
+    private static int exifOrientation(byte[] segment) {
+        int tiff = 6;
+        if (segment.length < tiff + 8 || segment[0] != 'E' || segment[1] != 'x' || segment[2] != 'i'
+                || segment[3] != 'f' || segment[4] != 0 || segment[5] != 0) {
+            return 0;
+        }
+        ByteOrder order;
+        if (segment[tiff] == 'I' && segment[tiff + 1] == 'I') {
+            order = ByteOrder.LITTLE_ENDIAN;
+        } else if (segment[tiff] == 'M' && segment[tiff + 1] == 'M') {
+            order = ByteOrder.BIG_ENDIAN;
+        } else {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(segment).order(order);
+        int ifd = tiff + buffer.getInt(tiff + 4);
+        if (ifd < tiff || ifd + 2 > segment.length) {
+            return 0;
         }
-        String uniqueFilename = UUID.randomUUID().toString() + extension;
+        int entries = buffer.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > segment.length) {
+                return 0;
+            }
+            if ((buffer.getShort(entry) & 0xFFFF) == 0x0112) {
+                int value = buffer.getShort(entry + 8) & 0xFFFF;
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
 
-        // Copy file to the target location
-        Path targetPath = targetLocation.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), targetPath, StandardCopyOption.REPLACE_EXISTING);
+    // Turns the decoded pixels the way a viewer honouring the EXIF orientation would display them
+    static BufferedImage orient(BufferedImage image, int orientation, boolean alpha) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);   // mirrored
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);  // upside down
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);   // mirrored vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);    // transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);   // rotate 90 clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);  // transversed
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);   // rotate 90 counter-clockwise
+            default -> null;
+        };
+        if (transform == null) {
+            return image;
+        }
+        boolean swap = orientation >= 5;
+        BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h,
+                alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = oriented.createGraphics();
+        graphics.drawImage(image, transform, null);
+        graphics.dispose();
+        return oriented;
+    }
+
+    // Halves repeatedly with bilinear filtering, which stays sharp without the cost of bicubic
+    private static BufferedImage scale(BufferedImage source, int maxEdge, boolean alpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
 
-        // --- THIS IS THE FIX ---
-        // Return the full, web-accessible path including /uploads/
-        // This ensures the correct URL is saved to the database.
-        return "/" + rootUploadsDir + "/" + subDirectory + "/" + uniqueFilename;
-        // --- END FIX ---
+    private static void write(BufferedImage image, Path target, boolean alpha) throws IOException {
+        if (alpha) {
+            if (!ImageIO.write(image, "png", target.toFile())) {
+                throw new IOException("No PNG writer available");
+            }
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
     }
-}
\ No newline at end of file
+}
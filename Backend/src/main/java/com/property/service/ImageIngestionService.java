@@ -0,0 +1,297 @@
+package com.property.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.property.dto.ImageUploadStatus;
+import com.property.model.Property;
+import com.property.model.PropertyImage;
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.PropertyRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts property photo uploads without holding the request (or a database
+ * connection) for the disk work.
+ * <p>
+ * The request thread only moves each multipart file into a spool directory
+ * and hands the batch to a small, bounded worker pool; the caller gets the
+ * pending image ids straight away. A worker validates each file by its
+ * content, moves it into the file store, writes its scaled variants and
+ * saves all the {@link PropertyImage} rows of the batch in one short
+ * transaction. When the pool's queue is full the upload is refused with
+ * {@link RejectedExecutionException} so clients back off instead of piling
+ * work up in memory. Upload progress is kept in memory for a while and can
+ * be polled by upload id.
+ */
+@Service
+public class ImageIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageIngestionService.class);
+
+    private final PropertyRepository propertyRepository;
+    private final PropertyImageRepository propertyImageRepository;
+    private final FileStorageService fileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final Cache<String, ImageUploadStatus> uploads;
+    private final Path spoolDirectory;
+
+    public ImageIngestionService(PropertyRepository propertyRepository,
+                                 PropertyImageRepository propertyImageRepository,
+                                 FileStorageService fileStorageService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.images.ingest.workers:2}") int workerCount,
+                                 @Value("${app.images.ingest.queue-capacity:50}") int queueCapacity,
+                                 @Value("${app.images.ingest.spool-dir:uploads-spool}") String spoolDir,
+                                 @Value("${app.images.ingest.status-ttl:1h}") Duration statusTtl) {
+        this.propertyRepository = propertyRepository;
+        this.propertyImageRepository = propertyImageRepository;
+        this.fileStorageService = fileStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("image-ingest-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.uploads = Caffeine.newBuilder()
+                .expireAfterWrite(statusTtl)
+                .maximumSize(10_000)
+                .build();
+        this.spoolDirectory = Paths.get(spoolDir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(spoolDirectory);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not create the image spool directory", e);
+        }
+        Gauge.builder("images.ingest.queued", workers, pool -> pool.getQueue().size())
+                .description("Image uploads waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spools the files and queues them for processing. Ownership of the
+     * property must already have been checked by the caller.
+     *
+     * @throws RejectedExecutionException if the workers are saturated
+     */
+    public ImageUploadStatus submit(Long propertyId, MultipartFile[] files) {
+        if (workers.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("Image processing is busy, please retry shortly");
+        }
+
+        List<SpooledFile> spooled = new ArrayList<>(files.length);
+        try {
+            for (MultipartFile file : files) {
+                if (file.isEmpty()) {
+                    continue;
+                }
+                String id = UUID.randomUUID().toString();
+                Path path = spoolDirectory.resolve(id + ".upload");
+                // Usually a rename of the container's temp file rather than a copy
+                file.transferTo(path);
+                spooled.add(new SpooledFile(id, file.getOriginalFilename(), path));
+            }
+        } catch (IOException e) {
+            discard(spooled);
+            throw new RuntimeException("Could not receive files: " + e.getMessage());
+        }
+        if (spooled.isEmpty()) {
+            throw new RuntimeException("No files provided.");
+        }
+
+        String uploadId = UUID.randomUUID().toString();
+        ImageUploadStatus status = ImageUploadStatus.builder()
+                .uploadId(uploadId)
+                .propertyId(propertyId)
+                .completed(false)
+                .images(spooled.stream()
+                        .map(file -> item(file, ImageUploadStatus.Status.PENDING).build())
+                        .toList())
+                .build();
+        uploads.put(uploadId, status);
+
+        try {
+            workers.execute(new Batch(uploadId, propertyId, spooled));
+        } catch (RejectedExecutionException e) {
+            uploads.invalidate(uploadId);
+            discard(spooled);
+            throw new RejectedExecutionException("Image processing is busy, please retry shortly", e);
+        }
+        return status;
+    }
+
+    public ImageUploadStatus getStatus(Long propertyId, String uploadId) {
+        ImageUploadStatus status = uploads.getIfPresent(uploadId);
+        if (status == null || !status.getPropertyId().equals(propertyId)) {
+            throw new RuntimeException("Upload not found");
+        }
+        return status;
+    }
+
+    public Path getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+            // Interrupts running batches (which clean up after themselves) and hands back the queued ones
+            List<Runnable> queued = workers.shutdownNow();
+            queued.forEach(task -> discard(((Batch) task).files()));
+            log.warn("Image workers still busy at shutdown; dropped {} queued uploads", queued.size());
+        }
+    }
+
+    private void process(String uploadId, Long propertyId, List<SpooledFile> files) {
+        List<ImageUploadStatus.Item.ItemBuilder> items = new ArrayList<>(files.size());
+        List<ImageUploadStatus.Item.ItemBuilder> stored = new ArrayList<>();
+        List<FileStorageService.StoredImage> storedImages = new ArrayList<>();
+        files.forEach(file -> items.add(item(file, ImageUploadStatus.Status.PENDING)));
+
+        try {
+            store(propertyId, files, items, stored, storedImages);
+            if (!storedImages.isEmpty()) {
+                saveImages(propertyId, stored, storedImages);
+            }
+        } finally {
+            // Whatever went wrong, the uploader must not be left polling a batch that will never finish
+            discard(files);
+            for (ImageUploadStatus.Item.ItemBuilder item : items) {
+                if (item.build().getStatus() == ImageUploadStatus.Status.PENDING) {
+                    item.status(ImageUploadStatus.Status.REJECTED).error("Could not process image");
+                }
+            }
+            uploads.put(uploadId, ImageUploadStatus.builder()
+                    .uploadId(uploadId)
+                    .propertyId(propertyId)
+                    .completed(true)
+                    .images(items.stream().map(ImageUploadStatus.Item.ItemBuilder::build).toList())
+                    .build());
+        }
+    }
+
+    private void store(Long propertyId, List<SpooledFile> files, List<ImageUploadStatus.Item.ItemBuilder> items,
+                       List<ImageUploadStatus.Item.ItemBuilder> stored,
+                       List<FileStorageService.StoredImage> storedImages) {
+        for (int i = 0; i < files.size(); i++) {
+            SpooledFile file = files.get(i);
+            ImageUploadStatus.Item.ItemBuilder item = items.get(i);
+            try {
+                String extension = FileStorageService.detectImageExtension(file.path());
+                if (extension == null) {
+                    item.status(ImageUploadStatus.Status.REJECTED).error("Not a JPEG, PNG, GIF or WebP image");
+                    continue;
+                }
+                FileStorageService.StoredImage image = fileStorageService.storeImage(file.path(), extension);
+                item.status(ImageUploadStatus.Status.STORED).imageUrl(image.url()).thumbnailUrl(image.thumbnailUrl());
+                stored.add(item);
+                storedImages.add(image);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not store image {} for property {}: {}", file.fileName(), propertyId, e.getMessage());
+                item.status(ImageUploadStatus.Status.REJECTED).error("Could not process image");
+            } finally {
+                deleteQuietly(file.path());
+            }
+        }
+    }
+
+    private void saveImages(Long propertyId, List<ImageUploadStatus.Item.ItemBuilder> stored,
+                            List<FileStorageService.StoredImage> storedImages) {
+        try {
+            List<PropertyImage> saved = transactionTemplate.execute(status -> {
+                Property property = propertyRepository.getReferenceById(propertyId);
+                List<PropertyImage> images = storedImages.stream()
+                        .map(image -> toEntity(image, property))
+                        .toList();
+                return propertyImageRepository.saveAll(images);
+            });
+            for (int i = 0; i < stored.size(); i++) {
+                stored.get(i).imageId(saved.get(i).getId());
+            }
+        } catch (RuntimeException e) {
+            // Most likely the property was deleted while the files were being processed. The
+            // stored files are left to the upload reaper: they were only just placed (or
+            // refreshed), so release() would keep them for its grace period anyway.
+            log.warn("Could not save images for property {}: {}", propertyId, e.getMessage());
+            for (ImageUploadStatus.Item.ItemBuilder item : stored) {
+                item.status(ImageUploadStatus.Status.REJECTED).imageUrl(null).thumbnailUrl(null)
+                        .error("Could not save image");
+            }
+        }
+    }
+
+    private static PropertyImage toEntity(FileStorageService.StoredImage stored, Property property) {
+        PropertyImage image = new PropertyImage(stored.url(), property);
+        image.setFullUrl(stored.fullUrl());
+        image.setCardUrl(stored.cardUrl());
+        image.setThumbnailUrl(stored.thumbnailUrl());
+        return image;
+    }
+
+    private static ImageUploadStatus.Item.ItemBuilder item(SpooledFile file, ImageUploadStatus.Status status) {
+        return ImageUploadStatus.Item.builder()
+                .id(file.id())
+                .fileName(file.fileName())
+                .status(status);
+    }
+
+    private void discard(List<SpooledFile> files) {
+        files.forEach(file -> deleteQuietly(file.path()));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record SpooledFile(String id, String fileName, Path path) {
+    }
+
+    // A named task so batches still queued at shutdown can have their spool files removed
+    private final class Batch implements Runnable {
+        private final String uploadId;
+        private final Long propertyId;
+        private final List<SpooledFile> files;
+
+        Batch(String uploadId, Long propertyId, List<SpooledFile> files) {
+            this.uploadId = uploadId;
+            this.propertyId = propertyId;
+            this.files = files;
+        }
+
+        List<SpooledFile> files() {
+            return files;
+        }
+
+        @Override
+        public void run() {
+            process(uploadId, propertyId, files);
+        }
+    }
+}
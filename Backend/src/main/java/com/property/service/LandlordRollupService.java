@@ -0,0 +1,323 @@
+package com.property.service;
+
+import com.property.dto.LandlordSummaryDto;
+import com.property.dto.MonthlyRollupDto;
+import com.property.event.LeaseChangedEvent;
+import com.property.event.PaymentChangedEvent;
+import com.property.model.LandlordMonthlyRollup;
+import com.property.model.Lease;
+import com.property.model.Payment;
+import com.property.repository.LandlordMonthlyRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link LandlordMonthlyRollup} rows so landlord dashboards read a
+ * dozen small rows instead of the full payment history.
+ * <p>
+ * Payment and lease events are turned into per-(landlord, month) deltas and
+ * merged in memory; a scheduled flush applies them with a batched
+ * {@code INSERT ... ON DUPLICATE KEY UPDATE} that adds to the stored totals,
+ * so a burst of events for the same landlord costs a single statement. A
+ * nightly rebuild recomputes every row from the source tables, which corrects
+ * drift from cascaded deletes or deltas lost on a restart. Events keep being
+ * merged while it runs; those deltas stay pending and the first flush after
+ * the rebuild adds them on top of the fresh rows.
+ */
+@Service
+public class LandlordRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(LandlordRollupService.class);
+
+    // Guards against open-ended leases expanding into thousands of months
+    private static final int MAX_TERM_MONTHS = 240;
+    private static final int DEFAULT_SUMMARY_MONTHS = 12;
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO landlord_monthly_rollups (landlord_id, period, billed, paid, overdue, occupied_units, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE billed = billed + VALUES(billed), paid = paid + VALUES(paid), " +
+            "overdue = overdue + VALUES(overdue), occupied_units = occupied_units + VALUES(occupied_units), " +
+            "updated_at = VALUES(updated_at)";
+
+    private static final String PAYMENT_TOTALS_SQL =
+            "SELECT pr.landlord_id, DATE_FORMAT(p.due_date, '%Y-%m') AS period, SUM(p.amount) AS billed, " +
+            "SUM(CASE WHEN p.status = 'PAID' THEN p.amount ELSE 0 END) AS paid, " +
+            "SUM(CASE WHEN p.status = 'OVERDUE' THEN p.amount ELSE 0 END) AS overdue " +
+            "FROM payments p JOIN leases l ON l.id = p.lease_id JOIN properties pr ON pr.id = l.property_id " +
+            "GROUP BY pr.landlord_id, DATE_FORMAT(p.due_date, '%Y-%m')";
+
+    private static final String LEASE_TERMS_SQL =
+            "SELECT pr.landlord_id, l.start_date, l.end_date " +
+            "FROM leases l JOIN properties pr ON pr.id = l.property_id WHERE l.status <> 'TERMINATED'";
+
+    private final LandlordMonthlyRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Deltas not yet written; guarded by "this"
+    private Map<LandlordMonthlyRollup.Key, Delta> pending = new HashMap<>();
+    // Keeps flushes from writing while a rebuild replaces the table; never held by event listeners
+    private final Object writeLock = new Object();
+
+    public LandlordRollupService(LandlordMonthlyRollupRepository rollupRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Monthly totals for a landlord between two periods (yyyy-MM, inclusive).
+     * Defaults to the last 12 months.
+     */
+    public LandlordSummaryDto getSummary(Long landlordId, String from, String to) {
+        YearMonth end = parsePeriod(to, YearMonth.now());
+        YearMonth start = parsePeriod(from, end.minusMonths(DEFAULT_SUMMARY_MONTHS - 1));
+        if (start.isAfter(end)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+
+        List<MonthlyRollupDto> months = rollupRepository
+                .findByLandlordIdAndPeriodBetweenOrderByPeriodAsc(landlordId, start.toString(), end.toString())
+                .stream()
+                .map(MonthlyRollupDto::fromRollup)
+                .collect(Collectors.toList());
+
+        return LandlordSummaryDto.builder()
+                .landlordId(landlordId)
+                .from(start.toString())
+                .to(end.toString())
+                .totalBilled(sum(months, MonthlyRollupDto::getBilled))
+                .totalPaid(sum(months, MonthlyRollupDto::getPaid))
+                .totalOverdue(sum(months, MonthlyRollupDto::getOverdue))
+                .months(months)
+                .build();
+    }
+
+    // --- domain events ---
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (event.landlordId() == null || event.dueDate() == null || event.amount() == null) {
+            return;
+        }
+        String period = YearMonth.from(event.dueDate()).toString();
+        int exists = (event.currentStatus() != null ? 1 : 0) - (event.previousStatus() != null ? 1 : 0);
+        int paid = statusDelta(event.previousStatus(), event.currentStatus(), Payment.Status.PAID);
+        int overdue = statusDelta(event.previousStatus(), event.currentStatus(), Payment.Status.OVERDUE);
+        if (exists == 0 && paid == 0 && overdue == 0) {
+            return;
+        }
+
+        BigDecimal amount = event.amount();
+        synchronized (this) {
+            delta(event.landlordId(), period).add(
+                    amount.multiply(BigDecimal.valueOf(exists)),
+                    amount.multiply(BigDecimal.valueOf(paid)),
+                    amount.multiply(BigDecimal.valueOf(overdue)),
+                    0);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLeaseChanged(LeaseChangedEvent event) {
+        if (event.landlordId() == null) {
+            return;
+        }
+        synchronized (this) {
+            if (occupies(event.previousStatus(), event.previousTerm())) {
+                for (YearMonth month : months(event.previousTerm())) {
+                    delta(event.landlordId(), month.toString()).add(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, -1);
+                }
+            }
+            if (occupies(event.currentStatus(), event.currentTerm())) {
+                for (YearMonth month : months(event.currentTerm())) {
+                    delta(event.landlordId(), month.toString()).add(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1);
+                }
+            }
+        }
+    }
+
+    // --- persistence ---
+
+    @Scheduled(fixedDelayString = "${app.rollups.flush-interval-ms:2000}")
+    public void flush() {
+        synchronized (writeLock) {
+            Map<LandlordMonthlyRollup.Key, Delta> batch;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new HashMap<>();
+            }
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                // The upsert runs in one transaction, so none of the batch was applied
+                requeue(batch);
+                log.warn("Could not write {} rollup deltas, will retry on the next flush: {}",
+                        batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void write(Map<LandlordMonthlyRollup.Key, Delta> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        batch.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                rows.add(new Object[]{key.getLandlordId(), key.getPeriod(),
+                        delta.billed, delta.paid, delta.overdue, delta.occupiedUnits, now});
+            }
+        });
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPSERT_SQL, rows));
+        }
+    }
+
+    private synchronized void requeue(Map<LandlordMonthlyRollup.Key, Delta> deltas) {
+        deltas.forEach((key, delta) -> pending.computeIfAbsent(key, k -> new Delta()).add(delta));
+    }
+
+    /**
+     * Recomputes every rollup row from payments and leases and replaces the table contents.
+     */
+    @Scheduled(cron = "${app.rollups.rebuild-cron:0 45 2 * * *}")
+    public void rebuild() {
+        synchronized (writeLock) {
+            Map<LandlordMonthlyRollup.Key, Delta> superseded;
+            synchronized (this) {
+                // These describe changes the queries below will already see. Anything
+                // merged from here on stays pending and is flushed on top of the new rows.
+                superseded = pending;
+                pending = new HashMap<>();
+            }
+            try {
+                replaceAll();
+            } catch (RuntimeException e) {
+                requeue(superseded);
+                throw e;
+            }
+        }
+    }
+
+    // An event whose transaction committed just before the queries may be
+    // counted twice; the next rebuild corrects that.
+    private void replaceAll() {
+        long started = System.currentTimeMillis();
+        Map<LandlordMonthlyRollup.Key, Delta> totals = new HashMap<>();
+
+        jdbcTemplate.query(PAYMENT_TOTALS_SQL, rs -> {
+            LandlordMonthlyRollup.Key key = new LandlordMonthlyRollup.Key(rs.getLong(1), rs.getString(2));
+            totals.computeIfAbsent(key, k -> new Delta())
+                    .add(rs.getBigDecimal(3), rs.getBigDecimal(4), rs.getBigDecimal(5), 0);
+        });
+        jdbcTemplate.query(LEASE_TERMS_SQL, rs -> {
+            long landlordId = rs.getLong(1);
+            LeaseChangedEvent.Term term = new LeaseChangedEvent.Term(
+                    rs.getDate(2).toLocalDate(), rs.getDate(3).toLocalDate());
+            for (YearMonth month : months(term)) {
+                totals.computeIfAbsent(new LandlordMonthlyRollup.Key(landlordId, month.toString()), k -> new Delta())
+                        .add(BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, 1);
+            }
+        });
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        totals.forEach((key, delta) -> rows.add(new Object[]{key.getLandlordId(), key.getPeriod(),
+                delta.billed, delta.paid, delta.overdue, delta.occupiedUnits, now}));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM landlord_monthly_rollups");
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        });
+        log.info("Rebuilt {} landlord rollup rows in {} ms", rows.size(), System.currentTimeMillis() - started);
+    }
+
+    // --- helpers ---
+
+    private Delta delta(Long landlordId, String period) {
+        return pending.computeIfAbsent(new LandlordMonthlyRollup.Key(landlordId, period), key -> new Delta());
+    }
+
+    private static boolean occupies(Lease.Status status, LeaseChangedEvent.Term term) {
+        return status != null && status != Lease.Status.TERMINATED && term != null;
+    }
+
+    private static List<YearMonth> months(LeaseChangedEvent.Term term) {
+        List<YearMonth> months = new ArrayList<>();
+        if (term.startDate() == null || term.endDate() == null) {
+            return months;
+        }
+        YearMonth month = YearMonth.from(term.startDate());
+        YearMonth last = YearMonth.from(term.endDate());
+        while (!month.isAfter(last) && months.size() < MAX_TERM_MONTHS) {
+            months.add(month);
+            month = month.plusMonths(1);
+        }
+        return months;
+    }
+
+    private static <S> int statusDelta(S previous, S current, S tracked) {
+        return (current == tracked ? 1 : 0) - (previous == tracked ? 1 : 0);
+    }
+
+    private static YearMonth parsePeriod(String value, YearMonth fallback) {
+        if (value == null || value.isBlank()) {
+            return fallback;
+        }
+        try {
+            return YearMonth.parse(value.trim());
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid period, expected yyyy-MM");
+        }
+    }
+
+    private static BigDecimal sum(List<MonthlyRollupDto> months,
+                                  Function<MonthlyRollupDto, BigDecimal> field) {
+        return months.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static final class Delta {
+        private BigDecimal billed = BigDecimal.ZERO;
+        private BigDecimal paid = BigDecimal.ZERO;
+        private BigDecimal overdue = BigDecimal.ZERO;
+        private int occupiedUnits;
+
+        void add(BigDecimal billed, BigDecimal paid, BigDecimal overdue, int occupiedUnits) {
+            this.billed = this.billed.add(billed);
+            this.paid = this.paid.add(paid);
+            this.overdue = this.overdue.add(overdue);
+            this.occupiedUnits += occupiedUnits;
+        }
+
+        void add(Delta other) {
+            add(other.billed, other.paid, other.overdue, other.occupiedUnits);
+        }
+
+        boolean isZero() {
+            return billed.signum() == 0 && paid.signum() == 0 && overdue.signum() == 0 && occupiedUnits == 0;
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.property.service;
 
+import com.property.dto.CursorPage;
 import com.property.dto.LeaseDto;
+import com.property.event.LeaseChangedEvent;
+import com.property.event.PropertyChangedEvent;
 import com.property.model.Lease;
 import com.property.model.Property;
 import com.property.model.User;
@@ -8,6 +11,7 @@ import com.property.repository.LeaseRepository;
 import com.property.repository.PropertyRepository;
 import com.property.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -21,15 +25,21 @@ public class LeaseService {
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final PropertySearchIndex propertySearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
     
     public LeaseService(LeaseRepository leaseRepository,
                        PropertyRepository propertyRepository,
                        UserRepository userRepository,
-                       NotificationService notificationService) {
+                       NotificationService notificationService,
+                       PropertySearchIndex propertySearchIndex,
+                       ApplicationEventPublisher eventPublisher) {
         this.leaseRepository = leaseRepository;
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.propertySearchIndex = propertySearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<LeaseDto> getAllLeases() {
@@ -56,6 +66,26 @@ public class LeaseService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<LeaseDto> getAllLeases(String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Lease> rows = leaseRepository.findPage(CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Lease::getId, LeaseDto::fromLease);
+    }
+
+    public CursorPage<LeaseDto> getLeasesByLandlord(Long landlordId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Lease> rows = leaseRepository.findPageByLandlordId(
+                landlordId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Lease::getId, LeaseDto::fromLease);
+    }
+
+    public CursorPage<LeaseDto> getLeasesByTenant(Long tenantId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Lease> rows = leaseRepository.findPageByTenantId(
+                tenantId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Lease::getId, LeaseDto::fromLease);
+    }
+
     public LeaseDto createLease(LeaseDto leaseDto, String landlordEmail) {
         User landlord = userRepository.findByEmail(landlordEmail)
                 .orElseThrow(() -> new RuntimeException("Landlord not found"));
@@ -82,14 +112,19 @@ public class LeaseService {
                 .build();
 
         Lease savedLease = leaseRepository.save(lease);
+        eventPublisher.publishEvent(new LeaseChangedEvent(savedLease.getId(), landlord.getId(),
+                null, savedLease.getStatus(), null, LeaseChangedEvent.Term.of(savedLease)));
 
         // Update property status to rented
+        Property.Status previousPropertyStatus = property.getStatus();
         property.setStatus(Property.Status.RENTED);
         propertyRepository.save(property);
+        propertySearchIndex.updateStatus(property.getId(), Property.Status.RENTED);
+        eventPublisher.publishEvent(new PropertyChangedEvent(property.getId(), previousPropertyStatus, Property.Status.RENTED));
 
         // Send notification to tenant
-        notificationService.createNotification(
-                tenant,
+        notificationService.queueNotification(
+                tenant.getId(),
                 "New Lease Agreement",
                 "New lease agreement for " + property.getTitle(),
                 "INFO"
@@ -113,6 +148,8 @@ public class LeaseService {
             throw new RuntimeException("You don't have permission to update this lease");
         }
 
+        Lease.Status previousStatus = lease.getStatus();
+        LeaseChangedEvent.Term previousTerm = LeaseChangedEvent.Term.of(lease);
         lease.setStartDate(leaseDto.getStartDate());
         lease.setEndDate(leaseDto.getEndDate());
         lease.setRentAmount(leaseDto.getRentAmount());
@@ -123,6 +160,11 @@ public class LeaseService {
         }
 
         Lease savedLease = leaseRepository.save(lease);
+        LeaseChangedEvent.Term currentTerm = LeaseChangedEvent.Term.of(savedLease);
+        if (savedLease.getStatus() != previousStatus || !currentTerm.equals(previousTerm)) {
+            eventPublisher.publishEvent(new LeaseChangedEvent(id, lease.getProperty().getLandlord().getId(),
+                    previousStatus, savedLease.getStatus(), previousTerm, currentTerm));
+        }
         return LeaseDto.fromLease(savedLease);
     }
 
@@ -143,10 +185,15 @@ public class LeaseService {
 
         // Update property status back to available
         Property property = lease.getProperty();
+        Property.Status previousPropertyStatus = property.getStatus();
         property.setStatus(Property.Status.AVAILABLE);
         propertyRepository.save(property);
+        propertySearchIndex.updateStatus(property.getId(), Property.Status.AVAILABLE);
+        eventPublisher.publishEvent(new PropertyChangedEvent(property.getId(), previousPropertyStatus, Property.Status.AVAILABLE));
 
         leaseRepository.delete(lease);
+        eventPublisher.publishEvent(new LeaseChangedEvent(id, property.getLandlord().getId(),
+                lease.getStatus(), null, LeaseChangedEvent.Term.of(lease), null));
     }
 
     public List<LeaseDto> getExpiringLeases(int days) {
@@ -156,4 +203,13 @@ public class LeaseService {
                 .map(LeaseDto::fromLease)
                 .collect(Collectors.toList());
     }
+
+    public CursorPage<LeaseDto> getExpiringLeases(int days, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = LocalDate.now().plusDays(days);
+        List<Lease> rows = leaseRepository.findPageExpiringBetween(
+                startDate, endDate, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Lease::getId, LeaseDto::fromLease);
+    }
 }
@@ -1,12 +1,14 @@
 package com.property.service;
 
 import com.property.dto.MaintenanceRequestDto;
+import com.property.event.MaintenanceChangedEvent;
 import com.property.model.MaintenanceRequest;
 import com.property.model.Property;
 import com.property.model.User;
 import com.property.repository.MaintenanceRequestRepository;
 import com.property.repository.PropertyRepository;
 import com.property.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -20,15 +22,18 @@ public class MaintenanceService {
     private final PropertyRepository propertyRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public MaintenanceService(MaintenanceRequestRepository maintenanceRequestRepository,
                              PropertyRepository propertyRepository,
                              UserRepository userRepository,
-                             NotificationService notificationService) {
+                             NotificationService notificationService,
+                             ApplicationEventPublisher eventPublisher) {
         this.maintenanceRequestRepository = maintenanceRequestRepository;
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<MaintenanceRequestDto> getAllRequests() {
@@ -74,10 +79,11 @@ public class MaintenanceService {
                 .build();
 
         MaintenanceRequest savedRequest = maintenanceRequestRepository.save(request);
+        eventPublisher.publishEvent(new MaintenanceChangedEvent(savedRequest.getId(), null, savedRequest.getStatus()));
 
         // Send notification to landlord
-        notificationService.createNotification(
-                property.getLandlord(),
+        notificationService.queueNotification(
+                property.getLandlord().getId(),
                 "New Maintenance Request",
                 "New maintenance request for " + property.getTitle(),
                 "INFO"
@@ -103,6 +109,7 @@ public class MaintenanceService {
             throw new RuntimeException("You don't have permission to update this request");
         }
 
+        MaintenanceRequest.Status previousStatus = request.getStatus();
         request.setTitle(requestDto.getTitle());
         request.setDescription(requestDto.getDescription());
         request.setCategory(MaintenanceRequest.Category.valueOf(requestDto.getCategory().toUpperCase()));
@@ -124,6 +131,9 @@ public class MaintenanceService {
         }
 
         MaintenanceRequest savedRequest = maintenanceRequestRepository.save(request);
+        if (savedRequest.getStatus() != previousStatus) {
+            eventPublisher.publishEvent(new MaintenanceChangedEvent(id, previousStatus, savedRequest.getStatus()));
+        }
         return MaintenanceRequestDto.fromMaintenanceRequest(savedRequest);
     }
 
@@ -145,5 +155,6 @@ public class MaintenanceService {
         }
 
         maintenanceRequestRepository.delete(request);
+        eventPublisher.publishEvent(new MaintenanceChangedEvent(id, request.getStatus(), null));
     }
 }
@@ -0,0 +1,310 @@
+package com.property.service;
+
+import com.property.dto.NotificationDto;
+import com.property.model.Notification;
+import com.property.repository.NotificationRepository;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Outbox for notifications raised by business operations.
+ * <p>
+ * Callers only record a small {@link PendingNotification} in memory; a
+ * scheduled flush drains the queue and saves the rows in one transaction,
+ * which Hibernate sends as JDBC batches (see {@code hibernate.jdbc.batch_size}).
+ * Notifications raised inside a transaction are queued only after it
+ * commits. When the queue is full the caller writes its own row, which
+ * slows the burst down instead of dropping notifications. Written rows are
+ * pushed to the recipients' open streams with their ids.
+ * <p>
+ * The first notification of a given user, type and title is written (and
+ * streamed) straight away and opens a {@code coalesce-window}; any more of
+ * the same kind arriving within that window are merged into one summary row
+ * written when it closes. A landlord creating a run of payments thus leaves
+ * the tenant the first "Payment Due" at once and one summary for the rest,
+ * instead of dozens of entries. A window of zero turns coalescing off.
+ * <p>
+ * A batch that fails because of its data (say, a notification for a user
+ * deleted since it was queued) is split in halves until only the offending
+ * rows fail; those are logged and dropped, the rest are written. A batch that
+ * fails for a passing reason (no connection, lock timeout) is kept whole and
+ * retried on the next flushes.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    private static final int MAX_WRITE_ATTEMPTS = 5;
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationStreamService notificationStreamService;
+    private final UnreadNotificationCounter unreadCounter;
+    private final BlockingQueue<PendingNotification> queue;
+    private final int batchSize;
+    private final long coalesceWindowMillis;
+    private final int maxHeldGroups;
+    private final Counter coalescedCounter;
+
+    // Open coalescing windows and the notifications held in them; guarded by "this"
+    private final Map<CoalesceKey, Group> held = new LinkedHashMap<>();
+    // Batches to write again after a transient failure
+    private final Queue<Retry> retries = new ConcurrentLinkedQueue<>();
+
+    public NotificationDispatcher(NotificationRepository notificationRepository,
+                                  UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  NotificationStreamService notificationStreamService,
+                                  UnreadNotificationCounter unreadCounter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.notifications.outbox.capacity:10000}") int capacity,
+                                  @Value("${app.notifications.outbox.batch-size:500}") int batchSize,
+                                  @Value("${app.notifications.outbox.coalesce-window:30s}") Duration coalesceWindow) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // An overflow write runs from afterCommit, where the caller's finished
+        // transaction is still bound; joining it would never commit the rows
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.notificationStreamService = notificationStreamService;
+        this.unreadCounter = unreadCounter;
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.coalesceWindowMillis = coalesceWindow.toMillis();
+        this.maxHeldGroups = capacity;
+        this.coalescedCounter = Counter.builder("notifications.outbox.coalesced")
+                .description("Notifications merged into another row instead of written on their own")
+                .register(meterRegistry);
+        Gauge.builder("notifications.outbox.pending", queue, BlockingQueue::size)
+                .description("Notifications recorded but not yet written")
+                .register(meterRegistry);
+    }
+
+    public void enqueue(PendingNotification notification) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(notification);
+                }
+            });
+        } else {
+            offer(notification);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.notifications.outbox.flush-interval-ms:500}")
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush(true);
+        int lost = retries.stream().mapToInt(retry -> retry.batch().size()).sum();
+        if (lost > 0) {
+            log.error("Shutting down with {} notifications that could not be written", lost);
+        }
+    }
+
+    /**
+     * Writes queued notifications that open a new window, holds the ones that
+     * fall into an open window, and writes a summary for every window that has
+     * closed (all of them when forced, or when too many are open).
+     */
+    private synchronized void flush(boolean force) {
+        for (int pending = retries.size(); pending > 0; pending--) {
+            Retry retry = retries.poll();
+            if (retry == null) {
+                break;
+            }
+            write(retry.batch(), retry.attempt());
+        }
+
+        long now = System.currentTimeMillis();
+        List<PendingNotification> ready = new ArrayList<>();
+        List<PendingNotification> drained = new ArrayList<>(batchSize);
+        while (queue.drainTo(drained, batchSize) > 0) {
+            for (PendingNotification notification : drained) {
+                Group group = coalesceWindowMillis > 0 ? held.get(CoalesceKey.of(notification)) : null;
+                if (group != null) {
+                    group.add(notification);
+                } else {
+                    ready.add(notification);
+                    if (coalesceWindowMillis > 0) {
+                        held.put(CoalesceKey.of(notification), new Group(now));
+                    }
+                }
+            }
+            drained.clear();
+        }
+
+        boolean overflow = held.size() > maxHeldGroups;
+        Iterator<Group> groups = held.values().iterator();
+        while (groups.hasNext()) {
+            Group group = groups.next();
+            // Groups are kept in the order they opened, so the first open window ends the scan
+            if (!force && !overflow && now - group.openedAt < coalesceWindowMillis) {
+                break;
+            }
+            if (group.count > 0) {
+                ready.add(group.merge());
+                if (group.count > 1) {
+                    coalescedCounter.increment(group.count - 1);
+                }
+            }
+            groups.remove();
+        }
+
+        for (int from = 0; from < ready.size(); from += batchSize) {
+            write(ready.subList(from, Math.min(from + batchSize, ready.size())));
+        }
+    }
+
+    private void offer(PendingNotification notification) {
+        if (!queue.offer(notification)) {
+            log.warn("Notification outbox full, writing synchronously");
+            write(List.of(notification));
+        }
+    }
+
+    private void write(List<PendingNotification> batch) {
+        write(batch, 1);
+    }
+
+    private void write(List<PendingNotification> batch, int attempt) {
+        List<Notification> saved;
+        try {
+            saved = transactionTemplate.execute(status -> notificationRepository.saveAll(
+                    batch.stream().map(this::toEntity).collect(Collectors.toList())));
+        } catch (DataAccessException | TransactionException e) {
+            if (isTransient(e)) {
+                if (attempt < MAX_WRITE_ATTEMPTS) {
+                    log.warn("Could not write {} notifications (attempt {}), will retry: {}",
+                            batch.size(), attempt, e.getMessage());
+                    retries.add(new Retry(List.copyOf(batch), attempt + 1));
+                } else {
+                    log.error("Dropping {} notifications after {} attempts", batch.size(), attempt, e);
+                }
+            } else if (batch.size() > 1) {
+                // Narrow down to the rows that fail; the others still get written
+                int middle = batch.size() / 2;
+                write(batch.subList(0, middle), attempt);
+                write(batch.subList(middle, batch.size()), attempt);
+            } else {
+                PendingNotification dropped = batch.get(0);
+                log.error("Dropping notification for user {} ({} \"{}\"): {}",
+                        dropped.userId(), dropped.type(), dropped.title(), e.getMessage());
+            }
+            return;
+        }
+        if (saved == null) {
+            return;
+        }
+
+        Map<Long, List<NotificationDto>> byUser = new LinkedHashMap<>();
+        for (Notification notification : saved) {
+            Long userId = notification.getUser().getId();
+            unreadCounter.add(userId, 1);
+            byUser.computeIfAbsent(userId, id -> new ArrayList<>()).add(NotificationDto.fromNotification(notification));
+        }
+        byUser.forEach(notificationStreamService::publish);
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException
+                || e instanceof TransactionTimedOutException;
+    }
+
+    private Notification toEntity(PendingNotification pending) {
+        return Notification.builder()
+                .user(userRepository.getReferenceById(pending.userId()))
+                .title(pending.title())
+                .message(pending.message())
+                .type(pending.type())
+                .isRead(false)
+                .actionUrl(pending.actionUrl())
+                .build();
+    }
+
+    private record Retry(List<PendingNotification> batch, int attempt) {
+    }
+
+    private record CoalesceKey(Long userId, Notification.Type type, String title) {
+        static CoalesceKey of(PendingNotification notification) {
+            return new CoalesceKey(notification.userId(), notification.type(), notification.title());
+        }
+    }
+
+    /**
+     * The notifications that followed the first one of a window (which has
+     * already been written).
+     */
+    private static final class Group {
+        private final long openedAt;
+        private PendingNotification latest;
+        private int count;
+
+        Group(long openedAt) {
+            this.openedAt = openedAt;
+        }
+
+        void add(PendingNotification notification) {
+            latest = notification;
+            count++;
+        }
+
+        PendingNotification merge() {
+            if (count == 1) {
+                return latest;
+            }
+            String summary = latest.message() != null
+                    ? count + " more notifications. Latest: " + latest.message()
+                    : count + " more notifications";
+            return new PendingNotification(latest.userId(), latest.title(), summary,
+                    latest.type(), latest.actionUrl());
+        }
+    }
+
+    /**
+     * A notification that has been raised but not yet written.
+     */
+    public record PendingNotification(Long userId, String title, String message,
+                                      Notification.Type type, String actionUrl) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.property.service;
+
+import com.property.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deletes read notifications older than {@code app.notifications.retention.read-days}.
+ * <p>
+ * Work is done in small batches: each round selects a bounded set of ids and
+ * deletes them by primary key in its own short transaction, then pauses, so
+ * row locks are held briefly and the purge never blocks user traffic for long.
+ * Unread notifications are kept whatever their age.
+ */
+@Component
+public class NotificationRetentionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationRetentionJob.class);
+
+    private final NotificationRepository notificationRepository;
+    private final Counter purgedCounter;
+    private final int readDays;
+    private final int batchSize;
+    private final long pauseMillis;
+
+    public NotificationRetentionJob(NotificationRepository notificationRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.notifications.retention.read-days:30}") int readDays,
+                                    @Value("${app.notifications.retention.batch-size:1000}") int batchSize,
+                                    @Value("${app.notifications.retention.pause-ms:100}") long pauseMillis) {
+        this.notificationRepository = notificationRepository;
+        this.purgedCounter = Counter.builder("notifications.purged")
+                .description("Read notifications deleted by the retention job")
+                .register(meterRegistry);
+        this.readDays = readDays;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void purge() {
+        if (readDays <= 0) {
+            return;
+        }
+        // Fixed up front so rows read during the run don't extend it
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readDays);
+        long started = System.currentTimeMillis();
+        long deleted = 0;
+
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findReadIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int removed = notificationRepository.deleteByIds(ids);
+            deleted += removed;
+            purgedCounter.increment(removed);
+
+            if (!pause()) {
+                break;
+            }
+        } while (ids.size() == batchSize);
+
+        if (deleted > 0) {
+            log.info("Purged {} read notifications older than {} days in {} ms",
+                    deleted, readDays, System.currentTimeMillis() - started);
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
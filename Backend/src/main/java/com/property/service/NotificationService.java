@@ -1,14 +1,21 @@
 package com.property.service;
 
+import com.property.dto.CursorPage;
 import com.property.dto.NotificationDto;
 import com.property.model.Notification;
 import com.property.model.User;
 import com.property.repository.NotificationRepository;
 import com.property.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -17,27 +24,47 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final UserRepository userRepository;
+    private final NotificationDispatcher notificationDispatcher;
+    private final NotificationStreamService notificationStreamService;
+    private final UnreadNotificationCounter unreadCounter;
+    private final int listLimit;
     
     public NotificationService(NotificationRepository notificationRepository,
-                              UserRepository userRepository) {
+                              UserRepository userRepository,
+                              NotificationDispatcher notificationDispatcher,
+                              NotificationStreamService notificationStreamService,
+                              UnreadNotificationCounter unreadCounter,
+                              @Value("${app.notifications.list-limit:50}") int listLimit) {
         this.notificationRepository = notificationRepository;
         this.userRepository = userRepository;
+        this.notificationDispatcher = notificationDispatcher;
+        this.notificationStreamService = notificationStreamService;
+        this.unreadCounter = unreadCounter;
+        this.listLimit = listLimit;
     }
 
+    /**
+     * The user's latest notifications, newest first, capped at {@code app.notifications.list-limit}.
+     * Older ones are reachable through the cursor-paged variant.
+     */
     public List<NotificationDto> getUserNotifications(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return notificationRepository.findByUserIdOrderByCreatedAtDesc(user.getId()).stream()
+        return notificationRepository.findPageByUserId(user.getId(), null, PageRequest.of(0, listLimit)).stream()
                 .map(NotificationDto::fromNotification)
                 .collect(Collectors.toList());
     }
 
-    public Long getUnreadCount(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public CursorPage<NotificationDto> getUserNotifications(Long userId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Notification> rows = notificationRepository.findPageByUserId(
+                userId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Notification::getId, NotificationDto::fromNotification);
+    }
 
-        return notificationRepository.countUnreadByUserId(user.getId());
+    public Long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
     }
 
     public NotificationDto createNotification(User user, String title, String message, String type) {
@@ -50,9 +77,32 @@ public class NotificationService {
                 .build();
 
         Notification savedNotification = notificationRepository.save(notification);
-        return NotificationDto.fromNotification(savedNotification);
+        NotificationDto dto = NotificationDto.fromNotification(savedNotification);
+        unreadCounter.add(user.getId(), 1);
+        notificationStreamService.publish(user.getId(), List.of(dto));
+        return dto;
+    }
+
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        return notificationStreamService.subscribe(userId, lastEventId);
     }
 
+    /**
+     * Records a notification for asynchronous delivery. The row is written by
+     * {@link NotificationDispatcher} shortly after the caller's transaction
+     * commits, so business operations don't pay for the insert.
+     */
+    public void queueNotification(Long userId, String title, String message, String type) {
+        notificationDispatcher.enqueue(new NotificationDispatcher.PendingNotification(
+                userId, title, message, Notification.Type.valueOf(type.toUpperCase()), null));
+    }
+
+    /**
+     * Marks one notification as read. Like the bulk variant the UPDATE only
+     * matches an unread row, so of two concurrent calls only one moves the
+     * unread count.
+     */
+    @Transactional
     public NotificationDto markAsRead(Long id, String userEmail) {
         Notification notification = notificationRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
@@ -64,18 +114,45 @@ public class NotificationService {
             throw new RuntimeException("You don't have permission to update this notification");
         }
 
+        int updated = notificationRepository.markAsReadById(id);
+        if (updated > 0) {
+            unreadChanged(user.getId(), -updated);
+        }
         notification.setIsRead(true);
-        Notification savedNotification = notificationRepository.save(notification);
-        return NotificationDto.fromNotification(savedNotification);
+        return NotificationDto.fromNotification(notification);
     }
 
+    /**
+     * Flips every unread notification of the user in a single UPDATE, however many there are.
+     */
+    @Transactional
     public void markAllAsRead(String userEmail) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        List<Notification> unreadNotifications = notificationRepository.findByUserIdAndIsRead(user.getId(), false);
-        unreadNotifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications);
+        Long userId = user.getId();
+        notificationRepository.markAllAsReadByUserId(userId);
+        afterCommit(() -> {
+            unreadCounter.reset(userId);
+            notificationStreamService.refreshUnreadCount(userId);
+        });
+    }
+
+    /**
+     * Marks the given notifications as read in one statement. Ids that don't
+     * belong to the user or are already read are ignored.
+     * Returns the number of notifications that changed.
+     */
+    @Transactional
+    public int markAsRead(List<Long> ids, String userEmail) {
+        User user = userRepository.findByEmail(userEmail)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        int updated = notificationRepository.markAsReadByUserIdAndIds(user.getId(), new HashSet<>(ids));
+        if (updated > 0) {
+            unreadChanged(user.getId(), -updated);
+        }
+        return updated;
     }
 
     public void deleteNotification(Long id, String userEmail) {
@@ -90,5 +167,29 @@ public class NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getIsRead())) {
+            unreadChanged(user.getId(), -1);
+        }
+    }
+
+    private void unreadChanged(Long userId, long delta) {
+        afterCommit(() -> {
+            unreadCounter.add(userId, delta);
+            notificationStreamService.refreshUnreadCount(userId);
+        });
+    }
+
+    // Counters must not move for changes that end up rolled back
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,333 @@
+package com.property.service;
+
+import com.property.dto.NotificationDto;
+import com.property.model.Notification;
+import com.property.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes notifications to connected clients over Server-Sent Events.
+ * <p>
+ * Each user may hold a few open streams (one per tab). New notifications are
+ * fanned out to every stream of their user, followed by an "unread-count"
+ * event. A reconnecting client sends the id of the last event it saw and gets
+ * the notifications it missed replayed, so nothing is lost across reconnects.
+ * Live notifications for a stream are held back until its replay has been
+ * queued, and those the replay already contained are dropped, so every
+ * notification arrives once and in order. A replay cut short by
+ * {@code max-replay} ends with a "replay-truncated" event: the client has to
+ * reload its list, since later event ids would skip the rest.
+ * A periodic comment line keeps proxies from closing idle connections.
+ * <p>
+ * Writing to a socket can block for as long as the client does not read, so
+ * callers never write themselves: events are put on the stream's own bounded
+ * queue and a small pool of sender threads writes them out. A stream whose
+ * queue overflows, or whose write has been stuck for {@code slow-send-timeout},
+ * is closed; the client reconnects and catches up through the replay.
+ */
+@Service
+public class NotificationStreamService {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationStreamService.class);
+
+    private static final String EVENT_NOTIFICATION = "notification";
+    private static final String EVENT_UNREAD_COUNT = "unread-count";
+    private static final String EVENT_REPLAY_TRUNCATED = "replay-truncated";
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadNotificationCounter unreadCounter;
+    private final Map<Long, Set<Stream>> streams = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor senders;
+    private final Counter droppedCounter;
+    private final long timeoutMillis;
+    private final int maxStreamsPerUser;
+    private final int maxReplay;
+    private final int maxQueuedEvents;
+    private final long slowSendNanos;
+
+    public NotificationStreamService(NotificationRepository notificationRepository,
+                                     UnreadNotificationCounter unreadCounter,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.notifications.stream.timeout:30m}") Duration timeout,
+                                     @Value("${app.notifications.stream.max-per-user:5}") int maxStreamsPerUser,
+                                     @Value("${app.notifications.stream.max-replay:100}") int maxReplay,
+                                     @Value("${app.notifications.stream.sender-threads:2}") int senderThreads,
+                                     @Value("${app.notifications.stream.max-queued-events:256}") int maxQueuedEvents,
+                                     @Value("${app.notifications.stream.slow-send-timeout:10s}") Duration slowSendTimeout) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCounter = unreadCounter;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        this.maxReplay = maxReplay;
+        this.maxQueuedEvents = maxQueuedEvents;
+        this.slowSendNanos = slowSendTimeout.toNanos();
+        // A stream has at most one drain task queued, so the queue is bounded by the open streams
+        this.senders = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory("notification-sse-"));
+        this.droppedCounter = Counter.builder("notifications.stream.dropped")
+                .description("Streams closed because the client could not keep up")
+                .register(meterRegistry);
+        Gauge.builder("notifications.stream.connections", streams,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Open notification streams")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Opens a stream for the user. If {@code lastEventId} is given, notifications
+     * created after it are replayed (at most {@code max-replay} of them).
+     */
+    public SseEmitter subscribe(Long userId, Long lastEventId) {
+        Stream stream = new Stream(userId, new SseEmitter(timeoutMillis),
+                new ArrayBlockingQueue<>(Math.max(maxQueuedEvents, maxReplay + 2)), lastEventId != null);
+        streams.compute(userId, (id, userStreams) -> {
+            Set<Stream> open = userStreams != null ? userStreams : new CopyOnWriteArraySet<>();
+            if (open.size() >= maxStreamsPerUser) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many open notification streams");
+            }
+            open.add(stream);
+            return open;
+        });
+        stream.emitter.onCompletion(() -> unregister(stream));
+        stream.emitter.onTimeout(() -> unregister(stream));
+        stream.emitter.onError(ex -> unregister(stream));
+
+        if (lastEventId != null) {
+            replay(stream, lastEventId);
+        }
+        enqueue(stream, unreadCountEvent(unreadCounter.get(userId)));
+        return stream.emitter;
+    }
+
+    // The stream is registered (and holding live events) before the query runs,
+    // so a notification committed meanwhile is in the replay, the held events or both
+    private void replay(Stream stream, Long lastEventId) {
+        List<Notification> missed;
+        try {
+            missed = notificationRepository.findByUserIdAfter(stream.userId, lastEventId, PageRequest.of(0, maxReplay));
+        } catch (RuntimeException e) {
+            unregister(stream);
+            throw e;
+        }
+        synchronized (stream) {
+            long replayedUpTo = lastEventId;
+            for (Notification notification : missed) {
+                enqueue(stream, notificationEvent(NotificationDto.fromNotification(notification)));
+                replayedUpTo = notification.getId();
+            }
+            if (missed.size() == maxReplay) {
+                enqueue(stream, replayTruncatedEvent(replayedUpTo));
+            }
+            for (HeldEvent held : stream.held) {
+                if (held.notificationId() > replayedUpTo) {
+                    enqueue(stream, held.event());
+                }
+            }
+            stream.held = null;
+        }
+    }
+
+    public boolean isConnected(Long userId) {
+        Set<Stream> userStreams = streams.get(userId);
+        return userStreams != null && !userStreams.isEmpty();
+    }
+
+    public void publish(Long userId, List<NotificationDto> notifications) {
+        if (!isConnected(userId)) {
+            return;
+        }
+        for (NotificationDto notification : notifications) {
+            broadcast(userId, notification.getId(), notificationEvent(notification));
+        }
+        refreshUnreadCount(userId);
+    }
+
+    /**
+     * Pushes the user's current unread count, if they have an open stream.
+     */
+    public void refreshUnreadCount(Long userId) {
+        if (isConnected(userId)) {
+            broadcast(userId, null, unreadCountEvent(unreadCounter.get(userId)));
+        }
+    }
+
+    /**
+     * Pings every stream and closes the ones whose last write has been stuck too long.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.stream.heartbeat-ms:25000}")
+    public void heartbeat() {
+        Set<DataWithMediaType> ping = SseEmitter.event().comment("ping").build();
+        long now = System.nanoTime();
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> {
+            long since = stream.sendingSince;
+            if (since != 0 && now - since > slowSendNanos) {
+                drop(stream, "write blocked for over " + TimeUnit.NANOSECONDS.toSeconds(now - since) + "s");
+            } else {
+                enqueue(stream, ping);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    // Events are built once and the same frames are written to every stream. A
+    // stream still replaying holds notifications back and skips unread counts,
+    // since it sends a current one when the replay is done.
+    private void broadcast(Long userId, Long notificationId, Set<DataWithMediaType> event) {
+        Set<Stream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            synchronized (stream) {
+                if (stream.held == null) {
+                    enqueue(stream, event);
+                } else if (notificationId != null) {
+                    stream.held.add(new HeldEvent(notificationId, event));
+                }
+            }
+        }
+    }
+
+    private void enqueue(Stream stream, Set<DataWithMediaType> event) {
+        if (!stream.events.offer(event)) {
+            drop(stream, "too many undelivered events");
+            return;
+        }
+        if (stream.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(stream));
+            } catch (RejectedExecutionException e) {
+                stream.draining.set(false);
+            }
+        }
+    }
+
+    // Runs on a sender thread; only one drain per stream runs at a time
+    private void drain(Stream stream) {
+        try {
+            Set<DataWithMediaType> event;
+            while ((event = stream.events.poll()) != null) {
+                stream.sendingSince = System.nanoTime();
+                try {
+                    stream.emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping notification stream for user {}: {}", stream.userId, e.getMessage());
+                    unregister(stream);
+                    stream.emitter.completeWithError(e);
+                    stream.events.clear();
+                    return;
+                } finally {
+                    stream.sendingSince = 0;
+                }
+            }
+        } finally {
+            stream.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!stream.events.isEmpty() && stream.draining.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(stream));
+            } catch (RejectedExecutionException e) {
+                stream.draining.set(false);
+            }
+        }
+    }
+
+    private void drop(Stream stream, String reason) {
+        if (unregister(stream)) {
+            log.info("Closing notification stream for user {}: {}", stream.userId, reason);
+            droppedCounter.increment();
+            stream.events.clear();
+            stream.emitter.complete();
+        }
+    }
+
+    private boolean unregister(Stream stream) {
+        AtomicBoolean removed = new AtomicBoolean();
+        streams.computeIfPresent(stream.userId, (id, userStreams) -> {
+            removed.set(userStreams.remove(stream));
+            return userStreams.isEmpty() ? null : userStreams;
+        });
+        return removed.get();
+    }
+
+    private static Set<DataWithMediaType> notificationEvent(NotificationDto notification) {
+        return SseEmitter.event()
+                .id(String.valueOf(notification.getId()))
+                .name(EVENT_NOTIFICATION)
+                .data(notification)
+                .build();
+    }
+
+    private static Set<DataWithMediaType> replayTruncatedEvent(long replayedUpTo) {
+        return SseEmitter.event()
+                .name(EVENT_REPLAY_TRUNCATED)
+                .data(replayedUpTo)
+                .build();
+    }
+
+    private static Set<DataWithMediaType> unreadCountEvent(long count) {
+        return SseEmitter.event()
+                .name(EVENT_UNREAD_COUNT)
+                .data(count)
+                .build();
+    }
+
+    /**
+     * One open connection and the events waiting to be written to it.
+     */
+    private static final class Stream {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<DataWithMediaType>> events;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // System.nanoTime() when the current write started, 0 when idle
+        private volatile long sendingSince;
+        // Live notifications that arrived during the replay, null once it is done; guarded by "this"
+        private List<HeldEvent> held;
+
+        Stream(Long userId, SseEmitter emitter, BlockingQueue<Set<DataWithMediaType>> events, boolean replaying) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.events = events;
+            this.held = replaying ? new ArrayList<>() : null;
+        }
+    }
+
+    private record HeldEvent(long notificationId, Set<DataWithMediaType> event) {
+    }
+}
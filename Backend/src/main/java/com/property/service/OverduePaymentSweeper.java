@@ -0,0 +1,126 @@
+package com.property.service;
+
+import com.property.event.PaymentChangedEvent;
+import com.property.model.Payment;
+import com.property.repository.PaymentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves PENDING payments past their due date to OVERDUE and reminds the tenants.
+ * <p>
+ * Candidates are read in fixed-size chunks by ascending due date and id
+ * (keyset, in index order), and each chunk is transitioned with one UPDATE in
+ * its own short transaction. The UPDATE only touches rows that are still
+ * PENDING, so a payment marked paid in the meantime is left alone and gets
+ * neither an event nor a reminder.
+ */
+@Component
+public class OverduePaymentSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OverduePaymentSweeper.class);
+
+    private final PaymentRepository paymentRepository;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer batchTimer;
+    private final Counter sweptCounter;
+    private final int chunkSize;
+
+    public OverduePaymentSweeper(PaymentRepository paymentRepository,
+                                 NotificationService notificationService,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.payments.overdue-sweep.chunk-size:500}") int chunkSize) {
+        this.paymentRepository = paymentRepository;
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchTimer = Timer.builder("payments.overdue.sweep.batch")
+                .description("Time to transition one chunk of overdue payments")
+                .register(meterRegistry);
+        this.sweptCounter = Counter.builder("payments.overdue.swept")
+                .description("Payments moved from PENDING to OVERDUE")
+                .register(meterRegistry);
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${app.payments.overdue-sweep.cron:0 15 0 * * *}")
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        long started = System.currentTimeMillis();
+        long swept = 0;
+        LocalDate afterDueDate = null;
+        Long afterId = 0L;
+
+        List<PaymentRepository.OverdueCandidate> chunk;
+        do {
+            chunk = paymentRepository.findOverdueCandidates(today, afterDueDate, afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+            PaymentRepository.OverdueCandidate last = chunk.get(chunk.size() - 1);
+            afterDueDate = last.getDueDate();
+            afterId = last.getId();
+
+            List<PaymentRepository.OverdueCandidate> candidates = chunk;
+            Integer transitioned = batchTimer.record(() -> transactionTemplate.execute(status -> transition(candidates)));
+            swept += transitioned != null ? transitioned : 0;
+        } while (chunk.size() == chunkSize);
+
+        if (swept > 0) {
+            log.info("Marked {} payments overdue in {} ms", swept, System.currentTimeMillis() - started);
+        }
+    }
+
+    // Runs inside the chunk transaction: events and reminders go out only if it commits
+    private int transition(List<PaymentRepository.OverdueCandidate> candidates) {
+        Set<Long> ids = candidates.stream()
+                .map(PaymentRepository.OverdueCandidate::getId)
+                .collect(Collectors.toSet());
+
+        int updated = paymentRepository.updateStatus(ids, Payment.Status.PENDING, Payment.Status.OVERDUE, LocalDateTime.now());
+        if (updated == 0) {
+            return 0;
+        }
+        if (updated < ids.size()) {
+            // Some were paid concurrently; only report the rows that actually moved
+            ids = new HashSet<>(paymentRepository.findIdsByIdInAndStatus(ids, Payment.Status.OVERDUE));
+        }
+
+        for (PaymentRepository.OverdueCandidate candidate : candidates) {
+            if (!ids.contains(candidate.getId())) {
+                continue;
+            }
+            eventPublisher.publishEvent(new PaymentChangedEvent(candidate.getId(), candidate.getLandlordId(),
+                    candidate.getDueDate(), candidate.getAmount(), Payment.Status.PENDING, Payment.Status.OVERDUE));
+            notificationService.queueNotification(
+                    candidate.getTenantId(),
+                    "Payment Overdue",
+                    "Payment of ₹" + candidate.getAmount() + " was due on " + candidate.getDueDate(),
+                    "WARNING"
+            );
+        }
+        sweptCounter.increment(updated);
+        return updated;
+    }
+}
@@ -1,11 +1,14 @@
 package com.property.service;
 
+import com.property.dto.CursorPage;
 import com.property.dto.PaymentDto;
+import com.property.event.PaymentChangedEvent;
 import com.property.model.Lease;
 import com.property.model.Payment;
 import com.property.repository.LeaseRepository;
 import com.property.repository.PaymentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.stereotype.Service;
 
@@ -19,13 +22,16 @@ public class PaymentService {
     private final PaymentRepository paymentRepository;
     private final LeaseRepository leaseRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public PaymentService(PaymentRepository paymentRepository,
                          LeaseRepository leaseRepository,
-                         NotificationService notificationService) {
+                         NotificationService notificationService,
+                         ApplicationEventPublisher eventPublisher) {
         this.paymentRepository = paymentRepository;
         this.leaseRepository = leaseRepository;
         this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PaymentDto> getAllPayments() {
@@ -58,6 +64,33 @@ public class PaymentService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<PaymentDto> getAllPayments(String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Payment> rows = paymentRepository.findPage(CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Payment::getId, PaymentDto::fromPayment);
+    }
+
+    public CursorPage<PaymentDto> getPaymentsByLandlord(Long landlordId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Payment> rows = paymentRepository.findPageByLandlordId(
+                landlordId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Payment::getId, PaymentDto::fromPayment);
+    }
+
+    public CursorPage<PaymentDto> getPaymentsByTenant(Long tenantId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Payment> rows = paymentRepository.findPageByTenantId(
+                tenantId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Payment::getId, PaymentDto::fromPayment);
+    }
+
+    public CursorPage<PaymentDto> getOverduePayments(String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Payment> rows = paymentRepository.findPageOverdue(
+                LocalDate.now(), CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Payment::getId, PaymentDto::fromPayment);
+    }
+
     public PaymentDto createPayment(PaymentDto paymentDto) {
         Lease lease = leaseRepository.findById(paymentDto.getLeaseId())
                 .orElseThrow(() -> new RuntimeException("Lease not found"));
@@ -72,10 +105,12 @@ public class PaymentService {
                 .build();
 
         Payment savedPayment = paymentRepository.save(payment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(savedPayment.getId(), lease.getProperty().getLandlord().getId(),
+                savedPayment.getDueDate(), savedPayment.getAmount(), null, savedPayment.getStatus()));
 
         // Send notification to tenant
-        notificationService.createNotification(
-                lease.getTenant(),
+        notificationService.queueNotification(
+                lease.getTenant().getId(),
                 "Payment Due",
                 "Payment of ₹" + payment.getAmount() + " is due on " + payment.getDueDate(),
                 "WARNING"
@@ -88,15 +123,18 @@ public class PaymentService {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
 
+        Payment.Status previousStatus = payment.getStatus();
         payment.setStatus(Payment.Status.PAID);
         payment.setPaidDate(LocalDate.now());
         payment.setPaymentMethod(paymentMethod);
 
         Payment savedPayment = paymentRepository.save(payment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(id, payment.getLease().getProperty().getLandlord().getId(),
+                savedPayment.getDueDate(), savedPayment.getAmount(), previousStatus, savedPayment.getStatus()));
 
         // Send notification to landlord
-        notificationService.createNotification(
-                payment.getLease().getProperty().getLandlord(),
+        notificationService.queueNotification(
+                payment.getLease().getProperty().getLandlord().getId(),
                 "Payment Received",
                 "Payment of ₹" + payment.getAmount() + " received from " + payment.getLease().getTenant().getName(),
                 "SUCCESS"
@@ -108,6 +146,9 @@ public class PaymentService {
     public void deletePayment(Long id) {
         Payment payment = paymentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Payment not found"));
+        Long landlordId = payment.getLease().getProperty().getLandlord().getId();
         paymentRepository.delete(payment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(id, landlordId, payment.getDueDate(),
+                payment.getAmount(), payment.getStatus(), null));
     }
 }
\ No newline at end of file
@@ -0,0 +1,388 @@
+package com.property.service;
+
+import com.property.dto.PropertySearchRequest;
+import com.property.model.Property;
+import com.property.repository.PropertyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the searchable fields of every property.
+ * <p>
+ * Exact-match fields (city, state, status, amenities) and title/description
+ * words map to posting sets of property ids; words live in a sorted map so
+ * free-text terms match by prefix. Postings are kept in id order, so a search
+ * walks the smallest one newest first, checks each id against the other
+ * postings and the rent, bedroom and bathroom ranges of its indexed entry, and
+ * stops as soon as it has a page of matches. No query ever touches the
+ * database, and none sorts its matches.
+ * PropertyService and LeaseService keep the index current on every create,
+ * update, delete and status change.
+ */
+@Component
+public class PropertySearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PropertySearchIndex.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int WARMUP_PAGE_SIZE = 500;
+
+    private final PropertyRepository propertyRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private final Map<String, NavigableSet<Long>> byCity = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> byState = new HashMap<>();
+    private final Map<String, NavigableSet<Long>> byAmenity = new HashMap<>();
+    private final Map<Property.Status, NavigableSet<Long>> byStatus = new EnumMap<>(Property.Status.class);
+    private final NavigableMap<String, NavigableSet<Long>> byWord = new TreeMap<>();
+    // Non-null while rebuild() reads the database; guarded by the lock
+    private List<Runnable> changesDuringRebuild;
+
+    public PropertySearchIndex(PropertyRepository propertyRepository) {
+        this.propertyRepository = propertyRepository;
+    }
+
+    /**
+     * Loads every property into the index once the application has started.
+     * <p>
+     * The database is read without holding the lock, so requests keep being
+     * served (and may change properties) meanwhile. Changes made while the
+     * snapshot is being read are recorded and replayed on top of it, so none
+     * of them is lost when the new contents replace the old.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Entry> loaded = new ArrayList<>();
+        int replayed;
+        try {
+            Long afterId = null;
+            List<Property> page;
+            do {
+                page = propertyRepository.findPage(afterId, PageRequest.of(0, WARMUP_PAGE_SIZE));
+                for (Property property : page) {
+                    loaded.add(Entry.of(property));
+                    afterId = property.getId();
+                }
+            } while (page.size() == WARMUP_PAGE_SIZE);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            byCity.clear();
+            byState.clear();
+            byAmenity.clear();
+            byStatus.clear();
+            byWord.clear();
+            loaded.forEach(this::add);
+            replayed = changesDuringRebuild.size();
+            changesDuringRebuild.forEach(Runnable::run);
+            changesDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Property search index built with {} properties ({} concurrent changes replayed) in {} ms",
+                loaded.size(), replayed, System.currentTimeMillis() - started);
+    }
+
+    public void index(Property property) {
+        Entry entry = Entry.of(property);
+        apply(() -> put(entry));
+    }
+
+    public void updateStatus(Long propertyId, Property.Status status) {
+        apply(() -> changeStatus(propertyId, status));
+    }
+
+    public void remove(Long propertyId) {
+        apply(() -> delete(propertyId));
+    }
+
+    /**
+     * Returns the ids of matching properties, newest first, at most {@code limit} of them.
+     */
+    public List<Long> search(PropertySearchRequest criteria, int limit) {
+        Property.Status status = parseStatus(criteria.getStatus());
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Long>> postings = new ArrayList<>();
+
+            if (hasText(criteria.getCity())) {
+                postings.add(byCity.getOrDefault(normalize(criteria.getCity()), Collections.emptyNavigableSet()));
+            }
+            if (hasText(criteria.getState())) {
+                postings.add(byState.getOrDefault(normalize(criteria.getState()), Collections.emptyNavigableSet()));
+            }
+            if (status != null) {
+                postings.add(byStatus.getOrDefault(status, Collections.emptyNavigableSet()));
+            }
+            if (criteria.getAmenities() != null) {
+                for (String amenity : criteria.getAmenities()) {
+                    if (hasText(amenity)) {
+                        postings.add(byAmenity.getOrDefault(normalize(amenity), Collections.emptyNavigableSet()));
+                    }
+                }
+            }
+            if (hasText(criteria.getQ())) {
+                for (String word : tokenize(criteria.getQ())) {
+                    postings.add(prefixMatches(word));
+                }
+            }
+
+            if (postings.isEmpty()) {
+                return collect(entries.descendingKeySet(), List.of(), criteria, limit);
+            }
+            postings.sort(Comparator.comparingInt(Set::size));
+            return collect(postings.get(0).descendingSet(), postings.subList(1, postings.size()), criteria, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Candidates come newest first, so the first limit matches are the page
+    private List<Long> collect(Iterable<Long> candidates, List<NavigableSet<Long>> others,
+                               PropertySearchRequest criteria, int limit) {
+        List<Long> matches = new ArrayList<>(Math.min(limit, 64));
+        Iterator<Long> ids = candidates.iterator();
+        while (matches.size() < limit && ids.hasNext()) {
+            Long id = ids.next();
+            if (containedInAll(others, id) && matchesRanges(entries.get(id), criteria)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean containedInAll(List<NavigableSet<Long>> postings, Long id) {
+        for (Set<Long> posting : postings) {
+            if (!posting.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // --- internals (callers hold the write lock) ---
+
+    private void apply(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Entry entry) {
+        delete(entry.id);
+        add(entry);
+    }
+
+    private void changeStatus(Long propertyId, Property.Status status) {
+        Entry existing = entries.get(propertyId);
+        if (existing == null || existing.status == status) {
+            return;
+        }
+        unlink(byStatus, existing.status, propertyId);
+        entries.put(propertyId, existing.withStatus(status));
+        link(byStatus, status, propertyId);
+    }
+
+    private void delete(Long propertyId) {
+        Entry existing = entries.remove(propertyId);
+        if (existing == null) {
+            return;
+        }
+        unlink(byCity, existing.city, propertyId);
+        unlink(byState, existing.state, propertyId);
+        unlink(byStatus, existing.status, propertyId);
+        existing.amenities.forEach(amenity -> unlink(byAmenity, amenity, propertyId));
+        existing.words.forEach(word -> unlink(byWord, word, propertyId));
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        link(byCity, entry.city, entry.id);
+        link(byState, entry.state, entry.id);
+        link(byStatus, entry.status, entry.id);
+        entry.amenities.forEach(amenity -> link(byAmenity, amenity, entry.id));
+        entry.words.forEach(word -> link(byWord, word, entry.id));
+    }
+
+    private NavigableSet<Long> prefixMatches(String prefix) {
+        NavigableMap<String, NavigableSet<Long>> range = byWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        if (range.size() == 1) {
+            return range.firstEntry().getValue();
+        }
+        NavigableSet<Long> union = new TreeSet<>();
+        range.values().forEach(union::addAll);
+        return union;
+    }
+
+    private static boolean matchesRanges(Entry entry, PropertySearchRequest criteria) {
+        if (entry == null) {
+            return false;
+        }
+        if (criteria.getMinRent() != null && (entry.rent == null || entry.rent.compareTo(criteria.getMinRent()) < 0)) {
+            return false;
+        }
+        if (criteria.getMaxRent() != null && (entry.rent == null || entry.rent.compareTo(criteria.getMaxRent()) > 0)) {
+            return false;
+        }
+        if (criteria.getMinBedrooms() != null && (entry.bedrooms == null || entry.bedrooms < criteria.getMinBedrooms())) {
+            return false;
+        }
+        if (criteria.getMinBathrooms() != null && (entry.bathrooms == null || entry.bathrooms < criteria.getMinBathrooms())) {
+            return false;
+        }
+        return true;
+    }
+
+    private static <K> void link(Map<K, NavigableSet<Long>> postings, K key, Long id) {
+        if (key != null) {
+            postings.computeIfAbsent(key, k -> new TreeSet<>()).add(id);
+        }
+    }
+
+    private static <K> void unlink(Map<K, NavigableSet<Long>> postings, K key, Long id) {
+        if (key == null) {
+            return;
+        }
+        Set<Long> ids = postings.get(key);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Property.Status parseStatus(String status) {
+        if (!hasText(status)) {
+            return null;
+        }
+        try {
+            return Property.Status.valueOf(status.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid property status: " + status);
+        }
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> words = new HashSet<>();
+        if (text == null) {
+            return words;
+        }
+        for (String word : NON_WORD.split(text.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Immutable snapshot of the indexed fields of one property, kept so that an
+     * update can remove exactly the postings the previous version created.
+     */
+    private static final class Entry {
+        private final Long id;
+        private final String city;
+        private final String state;
+        private final Property.Status status;
+        private final BigDecimal rent;
+        private final Integer bedrooms;
+        private final Integer bathrooms;
+        private final Set<String> amenities;
+        private final Set<String> words;
+
+        private Entry(Long id, String city, String state, Property.Status status, BigDecimal rent,
+                      Integer bedrooms, Integer bathrooms, Set<String> amenities, Set<String> words) {
+            this.id = id;
+            this.city = city;
+            this.state = state;
+            this.status = status;
+            this.rent = rent;
+            this.bedrooms = bedrooms;
+            this.bathrooms = bathrooms;
+            this.amenities = amenities;
+            this.words = words;
+        }
+
+        static Entry of(Property property) {
+            Set<String> amenities = new HashSet<>();
+            if (property.getAmenities() != null) {
+                for (String amenity : property.getAmenities()) {
+                    if (hasText(amenity)) {
+                        amenities.add(normalize(amenity));
+                    }
+                }
+            }
+            Set<String> words = tokenize(property.getTitle());
+            words.addAll(tokenize(property.getDescription()));
+
+            return new Entry(property.getId(), normalize(property.getCity()), normalize(property.getState()),
+                    property.getStatus(), property.getRent(), property.getBedrooms(), property.getBathrooms(),
+                    amenities, words);
+        }
+
+        Entry withStatus(Property.Status newStatus) {
+            return new Entry(id, city, state, newStatus, rent, bedrooms, bathrooms, amenities, words);
+        }
+    }
+}
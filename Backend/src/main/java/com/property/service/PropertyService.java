@@ -1,20 +1,24 @@
 package com.property.service;
 
+import com.property.dto.CursorPage;
+import com.property.dto.ImageUploadStatus;
 import com.property.dto.PropertyRequest;
 import com.property.dto.PropertyResponse;
+import com.property.dto.PropertySearchRequest;
+import com.property.event.PropertyChangedEvent;
 import com.property.model.Property;
-import com.property.model.PropertyImage;
 import com.property.model.User;
 import com.property.repository.PropertyImageRepository;
 import com.property.repository.PropertyRepository;
 import com.property.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,15 +28,24 @@ public class PropertyService {
     private final UserRepository userRepository;
     private final PropertyImageRepository propertyImageRepository;
     private final FileStorageService fileStorageService;
+    private final ImageIngestionService imageIngestionService;
+    private final PropertySearchIndex propertySearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PropertyService(PropertyRepository propertyRepository,
                            UserRepository userRepository,
                            PropertyImageRepository propertyImageRepository,
-                           FileStorageService fileStorageService) {
+                           FileStorageService fileStorageService,
+                           ImageIngestionService imageIngestionService,
+                           PropertySearchIndex propertySearchIndex,
+                           ApplicationEventPublisher eventPublisher) {
         this.propertyRepository = propertyRepository;
         this.userRepository = userRepository;
         this.propertyImageRepository = propertyImageRepository;
         this.fileStorageService = fileStorageService;
+        this.imageIngestionService = imageIngestionService;
+        this.propertySearchIndex = propertySearchIndex;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PropertyResponse> getAllProperties() {
@@ -59,6 +72,42 @@ public class PropertyService {
                 .collect(Collectors.toList());
     }
 
+    public CursorPage<PropertyResponse> getAllProperties(String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Property> rows = propertyRepository.findPage(CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Property::getId, PropertyResponse::fromProperty);
+    }
+
+    public CursorPage<PropertyResponse> getPropertiesByLandlord(Long landlordId, String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Property> rows = propertyRepository.findPageByLandlordId(
+                landlordId, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Property::getId, PropertyResponse::fromProperty);
+    }
+
+    public CursorPage<PropertyResponse> getAvailableProperties(String after, Integer limit) {
+        int size = CursorPage.clampLimit(limit);
+        List<Property> rows = propertyRepository.findPageByStatus(
+                Property.Status.AVAILABLE, CursorPage.decodeCursor(after), CursorPage.pageRequest(size));
+        return CursorPage.of(rows, size, Property::getId, PropertyResponse::fromProperty);
+    }
+
+    public List<PropertyResponse> searchProperties(PropertySearchRequest criteria) {
+        List<Long> ids = propertySearchIndex.search(criteria, CursorPage.clampLimit(criteria.getLimit()));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // findAllById does not preserve order, so re-apply the index ranking
+        Map<Long, Property> byId = propertyRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Property::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(property -> property != null)
+                .map(PropertyResponse::fromProperty)
+                .collect(Collectors.toList());
+    }
+
     public PropertyResponse createProperty(PropertyRequest request, String landlordEmail) {
         User landlord = userRepository.findByEmail(landlordEmail)
                 .orElseThrow(() -> new RuntimeException("Landlord not found"));
@@ -91,6 +140,8 @@ public class PropertyService {
                 .build();
 
         Property savedProperty = propertyRepository.save(property);
+        propertySearchIndex.index(savedProperty);
+        eventPublisher.publishEvent(new PropertyChangedEvent(savedProperty.getId(), null, savedProperty.getStatus()));
         return PropertyResponse.fromProperty(savedProperty);
     }
 
@@ -124,6 +175,7 @@ public class PropertyService {
         // --- END FIX ---
 
         Property savedProperty = propertyRepository.save(property);
+        propertySearchIndex.index(savedProperty);
         return PropertyResponse.fromProperty(savedProperty);
     }
 
@@ -138,13 +190,21 @@ public class PropertyService {
             throw new RuntimeException("You can only delete your own properties");
         }
         
-        // TODO: Add logic here to delete images from file system using FileStorageService
+        List<String> imageUrls = propertyImageRepository.findImageUrlsByPropertyId(id);
         
         propertyRepository.delete(property);
+        propertySearchIndex.remove(id);
+        eventPublisher.publishEvent(new PropertyChangedEvent(id, property.getStatus(), null));
+
+        // The rows are gone; files no other property or profile uses go with them (the upload reaper catches the rest)
+        imageUrls.forEach(fileStorageService::release);
     }
 
-    @Transactional
-    public List<String> uploadImages(Long propertyId, MultipartFile[] files, String userEmail) throws IOException {
+    /**
+     * Queues the files for processing and returns their pending ids right away.
+     * Poll {@link #getImageUploadStatus} for the stored image URLs.
+     */
+    public ImageUploadStatus uploadImages(Long propertyId, MultipartFile[] files, String userEmail) {
         Property property = propertyRepository.findById(propertyId)
                 .orElseThrow(() -> new RuntimeException("Property not found"));
 
@@ -155,18 +215,10 @@ public class PropertyService {
             throw new RuntimeException("You can only upload images to your own properties");
         }
 
-        List<String> savedImageUrls = new ArrayList<>();
-
-        for (MultipartFile file : files) {
-            String subDirectory = "properties/" + property.getId();
-            String imageUrl = fileStorageService.storeFile(file, subDirectory);
+        return imageIngestionService.submit(property.getId(), files);
+    }
 
-            PropertyImage propertyImage = new PropertyImage(imageUrl, property);
-            propertyImageRepository.save(propertyImage);
-            
-            savedImageUrls.add(imageUrl);
-        }
-        
-        return savedImageUrls;
+    public ImageUploadStatus getImageUploadStatus(Long propertyId, String uploadId) {
+        return imageIngestionService.getStatus(propertyId, uploadId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,159 @@
+package com.property.service;
+
+import com.property.dto.RentRollResult;
+import com.property.event.PaymentChangedEvent;
+import com.property.model.Payment;
+import com.property.repository.LeaseRepository;
+import com.property.repository.PaymentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bills every ACTIVE lease for a month in one pass.
+ * <p>
+ * Leases covering the period that have not been charged rent for it yet are
+ * read in keyset chunks; each chunk's PENDING payments are saved in its own
+ * transaction, which Hibernate writes as JDBC batches. Every charge carries its
+ * period, and the unique (lease_id, rent_period) key guarantees a lease is
+ * charged at most once per month, even when two application instances run the
+ * roll at the same time. Because charged leases are excluded by the query, a
+ * re-run (or a run resumed after a failure) only creates the payments that are
+ * still missing; a chunk that collides with another run is simply read again.
+ */
+@Service
+public class RentRollService {
+
+    private static final Logger log = LoggerFactory.getLogger(RentRollService.class);
+
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    private final LeaseRepository leaseRepository;
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final int dueDay;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public RentRollService(LeaseRepository leaseRepository,
+                           PaymentRepository paymentRepository,
+                           PlatformTransactionManager transactionManager,
+                           NotificationService notificationService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${app.payments.rent-roll.chunk-size:1000}") int chunkSize,
+                           @Value("${app.payments.rent-roll.due-day:5}") int dueDay) {
+        this.leaseRepository = leaseRepository;
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.notificationService = notificationService;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.dueDay = Math.max(1, Math.min(dueDay, 28));
+    }
+
+    @Scheduled(cron = "${app.payments.rent-roll.cron:0 5 0 1 * *}")
+    public void generateCurrentMonth() {
+        generate(YearMonth.now());
+    }
+
+    public RentRollResult generate(YearMonth period) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Rent roll generation is already running");
+        }
+        try {
+            return run(period);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private RentRollResult run(YearMonth period) {
+        long started = System.currentTimeMillis();
+        LocalDate periodStart = period.atDay(1);
+        LocalDate periodEnd = period.atEndOfMonth();
+        LocalDate dueDate = period.atDay(dueDay);
+        long created = 0;
+        Long afterId = 0L;
+        int attempt = 1;
+
+        List<LeaseRepository.BillableLease> chunk;
+        do {
+            chunk = leaseRepository.findBillableLeases(period.toString(), notesFor(period), periodStart, periodEnd,
+                    afterId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            List<LeaseRepository.BillableLease> leases = chunk;
+            try {
+                Integer inserted = transactionTemplate.execute(status -> insertPayments(leases, period, dueDate));
+                created += inserted != null ? inserted : 0;
+            } catch (DataIntegrityViolationException e) {
+                // Another run charged some of these leases first; re-read the chunk without them
+                if (attempt++ >= MAX_CHUNK_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("Rent roll for {} collided with a concurrent run, retrying chunk after lease {}", period, afterId);
+                continue;
+            }
+            attempt = 1;
+            afterId = chunk.get(chunk.size() - 1).getId();
+        } while (chunk.size() == chunkSize);
+
+        long duration = System.currentTimeMillis() - started;
+        log.info("Rent roll for {} created {} payments in {} ms", period, created, duration);
+        return RentRollResult.builder()
+                .period(period.toString())
+                .paymentsCreated(created)
+                .durationMs(duration)
+                .build();
+    }
+
+    private int insertPayments(List<LeaseRepository.BillableLease> leases, YearMonth period, LocalDate dueDate) {
+        String notes = notesFor(period);
+        List<Payment> payments = new ArrayList<>(leases.size());
+        for (LeaseRepository.BillableLease lease : leases) {
+            payments.add(Payment.builder()
+                    .lease(leaseRepository.getReferenceById(lease.getId()))
+                    .amount(lease.getRentAmount())
+                    .dueDate(dueDate)
+                    .status(Payment.Status.PENDING)
+                    .notes(notes)
+                    .rentPeriod(period.toString())
+                    .build());
+        }
+        List<Payment> saved = paymentRepository.saveAll(payments);
+
+        for (int i = 0; i < saved.size(); i++) {
+            Payment payment = saved.get(i);
+            eventPublisher.publishEvent(new PaymentChangedEvent(payment.getId(), leases.get(i).getLandlordId(),
+                    dueDate, payment.getAmount(), null, Payment.Status.PENDING));
+            notificationService.queueNotification(
+                    leases.get(i).getTenantId(),
+                    "Payment Due",
+                    "Payment of ₹" + payment.getAmount() + " is due on " + dueDate,
+                    "WARNING"
+            );
+        }
+        return saved.size();
+    }
+
+    private static String notesFor(YearMonth period) {
+        return "Rent for " + period;
+    }
+}
@@ -0,0 +1,191 @@
+package com.property.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.property.repository.NotificationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Unread notification count per user, kept in memory so the header badge
+ * never queries MySQL.
+ * <p>
+ * A user's counter is seeded from the database the first time it is read and
+ * then adjusted as notifications are created, read and deleted. The counter
+ * exists before its seed query runs, and an adjustment arriving meanwhile may
+ * or may not be part of the count (it is applied after its commit), so the
+ * seed is taken again until a query runs undisturbed. Adjustments for users
+ * without a counter are skipped; their next read seeds a fresh one.
+ * Idle counters expire, and a scheduled reconciliation re-counts the cached
+ * users with one grouped query per chunk to correct any drift.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadNotificationCounter.class);
+
+    private static final int RECONCILE_CHUNK_SIZE = 500;
+    private static final int MAX_SEED_ATTEMPTS = 3;
+
+    private final NotificationRepository notificationRepository;
+    private final Cache<Long, Counter> counters;
+
+    public UnreadNotificationCounter(NotificationRepository notificationRepository,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.notifications.unread.max-entries:100000}") long maxEntries,
+                                     @Value("${app.notifications.unread.idle-ttl:1h}") Duration idleTtl) {
+        this.notificationRepository = notificationRepository;
+        this.counters = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, counters, "unreadNotifications");
+    }
+
+    public long get(Long userId) {
+        Counter counter = counters.get(userId, id -> new Counter());
+        for (int attempt = 1; !counter.isSeeded(); attempt++) {
+            // Query outside the map so a slow count never blocks other users' counters
+            Counter.SeedStart start = counter.startSeed();
+            Long count = notificationRepository.countUnreadByUserId(userId);
+            counter.seed(count != null ? count : 0L, start, attempt == MAX_SEED_ATTEMPTS);
+        }
+        return counter.get();
+    }
+
+    public void add(Long userId, long delta) {
+        Counter counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.add(delta);
+        }
+    }
+
+    public void reset(Long userId) {
+        Counter counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.reset();
+        }
+    }
+
+    /**
+     * Re-counts every cached user. A counter that moved while its chunk was
+     * being counted is left alone; the next run will check it again.
+     */
+    @Scheduled(initialDelayString = "${app.notifications.unread.reconcile-interval-ms:600000}",
+               fixedDelayString = "${app.notifications.unread.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        List<Long> userIds = new ArrayList<>(counters.asMap().keySet());
+        int corrected = 0;
+
+        for (int from = 0; from < userIds.size(); from += RECONCILE_CHUNK_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + RECONCILE_CHUNK_SIZE, userIds.size()));
+
+            Map<Long, Long> before = new HashMap<>();
+            for (Long userId : chunk) {
+                Counter counter = counters.policy().getIfPresentQuietly(userId);
+                if (counter != null && counter.isSeeded()) {
+                    before.put(userId, counter.get());
+                }
+            }
+            if (before.isEmpty()) {
+                continue;
+            }
+
+            Map<Long, Long> fresh = new HashMap<>();
+            for (NotificationRepository.UserUnreadCount row : notificationRepository.countUnreadByUserIds(before.keySet())) {
+                fresh.put(row.getUserId(), row.getTotal());
+            }
+
+            for (Map.Entry<Long, Long> entry : before.entrySet()) {
+                long expected = entry.getValue();
+                long actual = fresh.getOrDefault(entry.getKey(), 0L);
+                Counter counter = counters.policy().getIfPresentQuietly(entry.getKey());
+                if (expected != actual && counter != null && counter.compareAndSet(expected, actual)) {
+                    corrected++;
+                }
+            }
+        }
+
+        if (corrected > 0) {
+            log.info("Corrected unread notification counts for {} of {} users", corrected, userIds.size());
+        }
+    }
+
+    /**
+     * A user's unread count. Until it is seeded it only counts and sums the
+     * adjustments made so far, so a seed can tell whether any arrived while
+     * its query ran.
+     */
+    private static final class Counter {
+        private long value;
+        private boolean seeded;
+        private long adjustments;
+
+        record SeedStart(long adjustments, long value) {
+        }
+
+        synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        synchronized long get() {
+            return value;
+        }
+
+        synchronized SeedStart startSeed() {
+            return new SeedStart(adjustments, value);
+        }
+
+        // Anything adjusted before the query started is in the count. Adjustments
+        // that arrived while it ran may or may not be, so the seed is only taken
+        // if there were none; the last attempt assumes they are not and leaves
+        // any error to the reconciliation.
+        synchronized void seed(long count, SeedStart start, boolean lastAttempt) {
+            if (seeded) {
+                return;
+            }
+            if (adjustments == start.adjustments()) {
+                value = Math.max(0L, count);
+                seeded = true;
+            } else if (lastAttempt) {
+                value = Math.max(0L, count + value - start.value());
+                seeded = true;
+            }
+        }
+
+        synchronized void add(long delta) {
+            if (seeded) {
+                value = Math.max(0L, value + delta);
+            } else {
+                value += delta;
+                adjustments++;
+            }
+        }
+
+        // Everything is read now, whatever a pending seed query returns
+        synchronized void reset() {
+            value = 0L;
+            seeded = true;
+        }
+
+        synchronized boolean compareAndSet(long expected, long actual) {
+            if (!seeded || value != expected) {
+                return false;
+            }
+            value = actual;
+            return true;
+        }
+    }
+}
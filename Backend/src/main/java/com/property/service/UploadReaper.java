@@ -0,0 +1,276 @@
+package com.property.service;
+
+import com.property.dto.UploadReapReport;
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Deletes uploaded files that no property image or profile picture points at
+ * any more, such as leftovers of failed uploads, or files whose release was
+ * skipped because they were still fresh.
+ * <p>
+ * The upload tree is walked lazily and files are checked against the
+ * database a chunk at a time with two indexed IN queries, so memory stays flat
+ * however many files there are. Files younger than {@code grace} are never
+ * touched (an upload may not have saved its row yet), and the age is checked
+ * again just before deleting. Deletes are done in small batches with a
+ * pause in between so the disk is not saturated. Scratch files (the store's
+ * temp directory and the image ingestion spool) are never referenced by
+ * anything, so those past the grace period are removed without a lookup; they
+ * are what a crash or a shutdown mid-upload leaves behind. A dry run only
+ * reports what would be deleted.
+ */
+@Component
+public class UploadReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(UploadReaper.class);
+
+    private static final int SAMPLE_SIZE = 100;
+
+    private final FileStorageService fileStorageService;
+    private final ImageIngestionService imageIngestionService;
+    private final PropertyImageRepository propertyImageRepository;
+    private final UserRepository userRepository;
+    private final Counter deletedCounter;
+    private final boolean enabled;
+    private final boolean scheduledDryRun;
+    private final Duration grace;
+    private final int chunkSize;
+    private final int deleteBatchSize;
+    private final long pauseMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public UploadReaper(FileStorageService fileStorageService,
+                        ImageIngestionService imageIngestionService,
+                        PropertyImageRepository propertyImageRepository,
+                        UserRepository userRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.uploads.reaper.enabled:true}") boolean enabled,
+                        @Value("${app.uploads.reaper.dry-run:false}") boolean scheduledDryRun,
+                        @Value("${app.uploads.reaper.grace:24h}") Duration grace,
+                        @Value("${app.uploads.reaper.chunk-size:500}") int chunkSize,
+                        @Value("${app.uploads.reaper.delete-batch-size:100}") int deleteBatchSize,
+                        @Value("${app.uploads.reaper.pause-ms:200}") long pauseMillis) {
+        this.fileStorageService = fileStorageService;
+        this.imageIngestionService = imageIngestionService;
+        this.propertyImageRepository = propertyImageRepository;
+        this.userRepository = userRepository;
+        this.deletedCounter = Counter.builder("uploads.reaper.deleted")
+                .description("Orphaned upload files deleted")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.scheduledDryRun = scheduledDryRun;
+        this.grace = grace;
+        this.chunkSize = chunkSize;
+        this.deleteBatchSize = Math.max(1, deleteBatchSize);
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(cron = "${app.uploads.reaper.cron:0 0 4 * * *}")
+    public void reapOnSchedule() {
+        if (enabled) {
+            reap(scheduledDryRun);
+        }
+    }
+
+    public UploadReapReport reap(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("Upload cleanup is already running");
+        }
+        try {
+            return run(dryRun);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private UploadReapReport run(boolean dryRun) {
+        long started = System.currentTimeMillis();
+        // Fixed up front so files written during the run are never candidates
+        Instant cutoff = Instant.now().minus(grace);
+        Run run = new Run(dryRun, cutoff);
+
+        try (Stream<Path> files = Files.walk(fileStorageService.getRoot())) {
+            Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+            List<Path> chunk = new ArrayList<>(chunkSize);
+            while (iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+                Path file = iterator.next();
+                if (fileStorageService.isTemporary(file)) {
+                    run.checkScratch(file);
+                    continue;
+                }
+                chunk.add(file);
+                if (chunk.size() == chunkSize) {
+                    run.check(chunk);
+                    chunk.clear();
+                }
+            }
+            run.check(chunk);
+            reapScratch(run, imageIngestionService.getSpoolDirectory());
+            run.flushDeletes();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Upload cleanup stopped early: {}", e.getMessage());
+        }
+
+        long duration = System.currentTimeMillis() - started;
+        if (run.orphans > 0) {
+            log.info("Upload cleanup{} scanned {} files, found {} orphans, deleted {} ({} bytes) in {} ms",
+                    dryRun ? " (dry run)" : "", run.scanned, run.orphans, run.deleted, run.bytesFreed, duration);
+        }
+        return UploadReapReport.builder()
+                .dryRun(dryRun)
+                .filesScanned(run.scanned)
+                .orphansFound(run.orphans)
+                .filesDeleted(run.deleted)
+                .bytesFreed(run.bytesFreed)
+                .durationMs(duration)
+                .sample(run.sample)
+                .build();
+    }
+
+    private void reapScratch(Run run, Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            Iterator<Path> iterator = files.filter(Files::isRegularFile).iterator();
+            while (iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
+                run.checkScratch(iterator.next());
+            }
+        }
+    }
+
+    private boolean pause() {
+        if (pauseMillis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // State of one pass over the tree
+    private final class Run {
+        private final boolean dryRun;
+        private final Instant cutoff;
+        private final List<Path> pendingDeletes = new ArrayList<>();
+        private final List<String> sample = new ArrayList<>();
+        private long scanned;
+        private long orphans;
+        private long deleted;
+        private long bytesFreed;
+
+        private Run(boolean dryRun, Instant cutoff) {
+            this.dryRun = dryRun;
+            this.cutoff = cutoff;
+        }
+
+        void check(List<Path> chunk) throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            scanned += chunk.size();
+
+            List<Path> oldEnough = new ArrayList<>(chunk.size());
+            Set<String> candidates = new LinkedHashSet<>();
+            for (Path file : chunk) {
+                if (isOld(file)) {
+                    oldEnough.add(file);
+                    candidates.addAll(fileStorageService.ownerUrls(fileStorageService.urlOf(file)));
+                }
+            }
+            if (oldEnough.isEmpty()) {
+                return;
+            }
+
+            Set<String> referenced = new HashSet<>(propertyImageRepository.findReferencedUrls(candidates));
+            referenced.addAll(userRepository.findReferencedProfileImages(candidates));
+
+            for (Path file : oldEnough) {
+                boolean inUse = fileStorageService.ownerUrls(fileStorageService.urlOf(file)).stream()
+                        .anyMatch(referenced::contains);
+                if (!inUse) {
+                    orphan(file);
+                }
+            }
+        }
+
+        private void orphan(Path file) {
+            orphans++;
+            if (sample.size() < SAMPLE_SIZE) {
+                sample.add(file.startsWith(fileStorageService.getRoot()) ? fileStorageService.urlOf(file) : file.toString());
+            }
+            if (!dryRun) {
+                pendingDeletes.add(file);
+                if (pendingDeletes.size() >= deleteBatchSize) {
+                    flushDeletes();
+                }
+            }
+        }
+
+        // Temp and spool files are never referenced, so age alone decides
+        void checkScratch(Path file) throws IOException {
+            scanned++;
+            if (isOld(file)) {
+                orphan(file);
+            }
+        }
+
+        void flushDeletes() {
+            if (pendingDeletes.isEmpty()) {
+                return;
+            }
+            for (Path file : pendingDeletes) {
+                try {
+                    // A duplicate upload refreshes the timestamp, so re-check right before deleting
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (attributes.lastModifiedTime().toInstant().isAfter(cutoff)) {
+                        continue;
+                    }
+                    if (Files.deleteIfExists(file)) {
+                        deleted++;
+                        bytesFreed += attributes.size();
+                        deletedCounter.increment();
+                    }
+                } catch (IOException e) {
+                    log.debug("Could not delete orphaned upload {}: {}", file, e.getMessage());
+                }
+            }
+            pendingDeletes.clear();
+            if (!pause()) {
+                log.info("Upload cleanup interrupted");
+            }
+        }
+
+        private boolean isOld(Path file) throws IOException {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        }
+    }
+}
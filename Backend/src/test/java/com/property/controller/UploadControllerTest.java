@@ -0,0 +1,174 @@
+package com.property.controller;
+
+import com.property.service.FileStorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UploadControllerTest {
+
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+    private static final String URL = "/uploads/objects/9f/86/" + HASH + "-thumb.jpg";
+    private static final String ETAG = "\"" + HASH + "-thumb\"";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.US_ASCII);
+
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final UploadController controller = new UploadController(fileStorageService);
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = directory.resolve(HASH + "-thumb.jpg");
+        Files.write(file, CONTENT);
+        when(fileStorageService.resolve(URL)).thenReturn(file);
+    }
+
+    @Test
+    void wholeFileIsServedWithImmutableCachingAndAContentHashEtag() throws IOException {
+        MockHttpServletResponse response = serve(request("GET"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentType()).isEqualTo("image/jpeg");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(response.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304WithoutABody() throws IOException {
+        for (String ifNoneMatch : new String[]{ETAG, "W/" + ETAG, "\"other\", " + ETAG, "*"}) {
+            MockHttpServletRequest request = request("GET");
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+
+            MockHttpServletResponse response = serve(request);
+
+            assertThat(response.getStatus()).as(ifNoneMatch).isEqualTo(304);
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(ETAG);
+        }
+    }
+
+    @Test
+    void staleIfNoneMatchGetsTheFile() throws IOException {
+        MockHttpServletRequest request = request("GET");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"something-else\"");
+
+        assertThat(serve(request).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void singleRangeGets206() throws IOException {
+        MockHttpServletResponse response = serve(ranged("bytes=2-5"));
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+        assertThat(response.getContentLengthLong()).isEqualTo(4);
+        assertThat(response.getContentAsString()).isEqualTo("2345");
+    }
+
+    @Test
+    void openAndSuffixRangesAreClampedToTheFile() throws IOException {
+        MockHttpServletResponse open = serve(ranged("bytes=7-"));
+        MockHttpServletResponse suffix = serve(ranged("bytes=-3"));
+        MockHttpServletResponse pastTheEnd = serve(ranged("bytes=8-100"));
+        MockHttpServletResponse longSuffix = serve(ranged("bytes=-50"));
+
+        assertThat(open.getContentAsString()).isEqualTo("789");
+        assertThat(suffix.getContentAsString()).isEqualTo("789");
+        assertThat(suffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 7-9/10");
+        assertThat(pastTheEnd.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 8-9/10");
+        assertThat(longSuffix.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-9/10");
+    }
+
+    @Test
+    void unsatisfiableRangeGets416() throws IOException {
+        for (String range : new String[]{"bytes=10-", "bytes=5-2", "bytes=-0", "bytes=-"}) {
+            MockHttpServletResponse response = serve(ranged(range));
+
+            assertThat(response.getStatus()).as(range).isEqualTo(416);
+            assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).as(range).isEqualTo("bytes */10");
+        }
+    }
+
+    @Test
+    void multipleRangesGetTheWholeFile() throws IOException {
+        MockHttpServletResponse response = serve(ranged("bytes=0-1,4-5"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void ifRangeHonoursTheRangeOnlyForTheCurrentEtag() throws IOException {
+        MockHttpServletRequest current = ranged("bytes=0-1");
+        current.addHeader(HttpHeaders.IF_RANGE, ETAG);
+        MockHttpServletRequest stale = ranged("bytes=0-1");
+        stale.addHeader(HttpHeaders.IF_RANGE, "\"changed\"");
+
+        assertThat(serve(current).getStatus()).isEqualTo(206);
+        MockHttpServletResponse whole = serve(stale);
+        assertThat(whole.getStatus()).isEqualTo(200);
+        assertThat(whole.getContentAsByteArray()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    void headSendsHeadersOnly() throws IOException {
+        MockHttpServletResponse response = serve(request("HEAD"));
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentLengthLong()).isEqualTo(10);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void tomcatSendfileGetsTheRangeInsteadOfABody() throws IOException {
+        MockHttpServletRequest request = ranged("bytes=2-5");
+        request.setAttribute("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+
+        MockHttpServletResponse response = serve(request);
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.filename")).isNotNull();
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.start")).isEqualTo(2L);
+        assertThat(request.getAttribute("org.apache.tomcat.sendfile.end")).isEqualTo(6L);
+    }
+
+    @Test
+    void unknownFilesGet404() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/objects/.tmp/upload-1.tmp");
+
+        assertThat(serve(request).getStatus()).isEqualTo(404);
+    }
+
+    private MockHttpServletResponse serve(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+
+    private static MockHttpServletRequest ranged(String range) {
+        MockHttpServletRequest request = request("GET");
+        request.addHeader(HttpHeaders.RANGE, range);
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String method) {
+        return new MockHttpServletRequest(method, URL);
+    }
+}
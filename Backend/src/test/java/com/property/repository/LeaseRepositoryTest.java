@@ -0,0 +1,114 @@
+package com.property.repository;
+
+import com.property.model.Lease;
+import com.property.model.Payment;
+import com.property.model.Property;
+import com.property.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class LeaseRepositoryTest {
+
+    private static final LocalDate MARCH_START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate MARCH_END = LocalDate.of(2026, 3, 31);
+
+    @Autowired
+    private LeaseRepository leaseRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private int seeded;
+
+    @Test
+    void otherPaymentsDueInTheMonthDoNotBlockTheRentCharge() {
+        Lease lease = lease();
+        payment(lease, LocalDate.of(2026, 3, 10), null, "Late fee");
+
+        assertThat(billableIds()).containsExactly(lease.getId());
+    }
+
+    @Test
+    void leasesAlreadyChargedForThePeriodAreSkipped() {
+        Lease charged = lease();
+        Lease legacy = lease();
+        Lease open = lease();
+        payment(charged, LocalDate.of(2026, 3, 1), "2026-03", "Rent for 2026-03");
+        // Written before rent_period existed
+        payment(legacy, LocalDate.of(2026, 3, 1), null, "Rent for 2026-03");
+
+        assertThat(billableIds()).containsExactly(open.getId());
+    }
+
+    @Test
+    void aLeaseCannotBeChargedTwiceForTheSamePeriod() {
+        Lease lease = lease();
+        payment(lease, LocalDate.of(2026, 3, 1), "2026-03", "Rent for 2026-03");
+
+        assertThatThrownBy(() -> paymentRepository.saveAndFlush(Payment.builder()
+                .lease(lease).amount(new BigDecimal("1000")).dueDate(LocalDate.of(2026, 3, 1))
+                .rentPeriod("2026-03")
+                .build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private List<Long> billableIds() {
+        entityManager.flush();
+        entityManager.clear();
+        return leaseRepository.findBillableLeases("2026-03", "Rent for 2026-03", MARCH_START, MARCH_END,
+                        0L, PageRequest.of(0, 10))
+                .stream().map(LeaseRepository.BillableLease::getId).toList();
+    }
+
+    private void payment(Lease lease, LocalDate dueDate, String rentPeriod, String notes) {
+        entityManager.persist(Payment.builder()
+                .lease(lease).amount(new BigDecimal("1000")).dueDate(dueDate)
+                .rentPeriod(rentPeriod).notes(notes)
+                .build());
+    }
+
+    private Lease lease() {
+        seeded++;
+        User landlord = user("landlord" + seeded);
+        User tenant = user("tenant" + seeded);
+        Property property = entityManager.persist(Property.builder()
+                .title("Flat " + seeded).address("Street").city("Pune").state("MH").zipCode("411001")
+                .rent(new BigDecimal("1000")).deposit(new BigDecimal("2000"))
+                .bedrooms(2).bathrooms(1)
+                .status(Property.Status.RENTED)
+                .landlord(landlord)
+                .build());
+        return entityManager.persist(Lease.builder()
+                .property(property).tenant(tenant)
+                .startDate(LocalDate.of(2026, 1, 1)).endDate(LocalDate.of(2026, 12, 31))
+                .rentAmount(new BigDecimal("1000")).securityDeposit(new BigDecimal("2000"))
+                .build());
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret123");
+        return entityManager.persist(user);
+    }
+}
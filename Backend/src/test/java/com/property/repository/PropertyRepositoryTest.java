@@ -0,0 +1,109 @@
+package com.property.repository;
+
+import com.property.dto.PropertyResponse;
+import com.property.model.Property;
+import com.property.model.PropertyImage;
+import com.property.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PropertyRepositoryTest {
+
+    @Autowired
+    private PropertyRepository propertyRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private User landlord;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        landlord = new User();
+        landlord.setName("Landlord");
+        landlord.setEmail("landlord@example.com");
+        landlord.setPassword("secret123");
+        entityManager.persist(landlord);
+    }
+
+    @Test
+    void listingPageCostsTheSameStatementsForAnyPageSize() {
+        persistProperties(3);
+        long small = statementsToRender(() -> propertyRepository.findPage(null, PageRequest.of(0, 3)));
+
+        persistProperties(30);
+        long large = statementsToRender(() -> propertyRepository.findPage(null, PageRequest.of(0, 33)));
+
+        // page query + one batch each for images and amenities
+        assertThat(small).isEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void findAllFetchesTheLandlordWithTheProperties() {
+        persistProperties(10);
+
+        long statements = statementsToRender(propertyRepository::findAll);
+
+        assertThat(statements).isEqualTo(3);
+    }
+
+    private long statementsToRender(Supplier<List<Property>> query) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<Property> properties = query.get();
+        List<PropertyResponse> responses = properties.stream().map(PropertyResponse::fromProperty).toList();
+
+        assertThat(responses).allSatisfy(response -> {
+            assertThat(response.getLandlordName()).isEqualTo("Landlord");
+            assertThat(response.getImages()).hasSize(2);
+            assertThat(response.getAmenities()).containsExactly("Parking", "Gym");
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void persistProperties(int count) {
+        for (int i = 0; i < count; i++) {
+            Property property = Property.builder()
+                    .title("Flat " + i)
+                    .address("Street " + i)
+                    .city("Pune")
+                    .state("MH")
+                    .zipCode("411001")
+                    .rent(new BigDecimal("15000"))
+                    .deposit(new BigDecimal("30000"))
+                    .bedrooms(2)
+                    .bathrooms(1)
+                    .amenities(new ArrayList<>(List.of("Parking", "Gym")))
+                    .status(Property.Status.AVAILABLE)
+                    .landlord(landlord)
+                    .build();
+            property.getImages().add(new PropertyImage("/uploads/a" + i + ".jpg", property));
+            property.getImages().add(new PropertyImage("/uploads/b" + i + ".jpg", property));
+            entityManager.persist(property);
+        }
+    }
+}
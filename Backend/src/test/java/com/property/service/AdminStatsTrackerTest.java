@@ -0,0 +1,197 @@
+package com.property.service;
+
+import com.property.dto.AdminStatsDto;
+import com.property.event.PropertyChangedEvent;
+import com.property.event.UserChangedEvent;
+import com.property.model.Lease;
+import com.property.model.MaintenanceRequest;
+import com.property.model.Payment;
+import com.property.model.Property;
+import com.property.model.Role;
+import com.property.model.User;
+import com.property.repository.LeaseRepository;
+import com.property.repository.MaintenanceRequestRepository;
+import com.property.repository.PaymentRepository;
+import com.property.repository.PropertyRepository;
+import com.property.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(AdminStatsTracker.class)
+class AdminStatsTrackerTest {
+
+    @Autowired
+    private AdminStatsTracker adminStatsTracker;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics statistics;
+    private Role landlordRole;
+    private Role tenantRole;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        landlordRole = role("ROLE_LANDLORD");
+        tenantRole = role("ROLE_TENANT");
+    }
+
+    @Test
+    void statsCostAFixedNumberOfQueriesWhateverTheTableSizes() {
+        seed(2);
+        long small = statementsToReconcile();
+
+        seed(40);
+        long large = statementsToReconcile();
+
+        assertThat(small).isEqualTo(6);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void statsAreDerivedFromAggregates() {
+        seed(5);
+        statementsToReconcile();
+
+        AdminStatsDto stats = adminStatsTracker.getStats();
+
+        assertThat(stats.getTotalUsers()).isEqualTo(10);
+        assertThat(stats.getTotalLandlords()).isEqualTo(5);
+        assertThat(stats.getTotalTenants()).isEqualTo(5);
+        assertThat(stats.getTotalProperties()).isEqualTo(5);
+        assertThat(stats.getActiveLeases()).isEqualTo(5);
+        assertThat(stats.getPendingPayments()).isEqualTo(5);
+        assertThat(stats.getMaintenanceRequests()).isEqualTo(5);
+        assertThat(stats.getTotalRevenue()).isEqualByComparingTo("5000");
+    }
+
+    @Test
+    void eventsArrivingDuringReconciliationAreReappliedOnTheFreshFigures() {
+        PropertyRepository propertyRepository = mock(PropertyRepository.class);
+        AdminStatsTracker tracker = tracker(mock(UserRepository.class), propertyRepository);
+        // Committed after the count was read, so the count does not include it
+        when(propertyRepository.count()).thenAnswer(invocation -> {
+            tracker.onPropertyChanged(new PropertyChangedEvent(99L, null, Property.Status.AVAILABLE));
+            return 10L;
+        });
+
+        tracker.reconcile();
+        assertThat(tracker.getStats().getTotalProperties()).isEqualTo(11);
+
+        tracker.reconcile();
+        assertThat(tracker.getStats().getTotalProperties()).isEqualTo(11);
+    }
+
+    @Test
+    void deletingAUserRecountsInTheBackgroundNotOnTheCallersThread() {
+        UserRepository userRepository = mock(UserRepository.class);
+        PropertyRepository propertyRepository = mock(PropertyRepository.class);
+        AdminStatsTracker tracker = tracker(userRepository, propertyRepository);
+        when(userRepository.count()).thenReturn(2L);
+        when(propertyRepository.count()).thenReturn(3L);
+        tracker.reconcile();
+
+        // The landlord's properties go with them, without events of their own
+        when(userRepository.count()).thenReturn(1L);
+        when(propertyRepository.count()).thenReturn(1L);
+        tracker.onUserChanged(new UserChangedEvent(7L, Set.of("ROLE_LANDLORD"), null));
+
+        verify(propertyRepository, times(1)).count();
+        assertThat(tracker.getStats().getTotalUsers()).isEqualTo(1);
+        assertThat(tracker.getStats().getTotalProperties()).isEqualTo(3);
+
+        tracker.reconcileIfStale();
+        assertThat(tracker.getStats().getTotalProperties()).isEqualTo(1);
+
+        tracker.reconcileIfStale();
+        verify(propertyRepository, times(2)).count();
+    }
+
+    private static AdminStatsTracker tracker(UserRepository userRepository, PropertyRepository propertyRepository) {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return new AdminStatsTracker(userRepository, propertyRepository, mock(LeaseRepository.class),
+                mock(PaymentRepository.class), mock(MaintenanceRequestRepository.class), transactionManager);
+    }
+
+    private long statementsToReconcile() {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        adminStatsTracker.reconcile();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Each unit is a landlord, a property, a tenant, an active lease, a paid
+    // and a pending payment, and an open maintenance request
+    private void seed(int count) {
+        for (int i = 0; i < count; i++, seeded++) {
+            User landlord = user("landlord" + seeded, landlordRole);
+            User tenant = user("tenant" + seeded, tenantRole);
+            Property property = entityManager.persist(Property.builder()
+                    .title("Flat " + seeded).address("Street").city("Pune").state("MH").zipCode("411001")
+                    .rent(new BigDecimal("1000")).deposit(new BigDecimal("2000"))
+                    .bedrooms(2).bathrooms(1)
+                    .status(Property.Status.RENTED)
+                    .landlord(landlord)
+                    .build());
+            Lease lease = entityManager.persist(Lease.builder()
+                    .property(property).tenant(tenant)
+                    .startDate(LocalDate.of(2026, 1, 1)).endDate(LocalDate.of(2026, 12, 31))
+                    .rentAmount(new BigDecimal("1000")).securityDeposit(new BigDecimal("2000"))
+                    .build());
+            entityManager.persist(Payment.builder()
+                    .lease(lease).amount(new BigDecimal("1000")).dueDate(LocalDate.of(2026, 1, 5))
+                    .status(Payment.Status.PAID)
+                    .build());
+            entityManager.persist(Payment.builder()
+                    .lease(lease).amount(new BigDecimal("1000")).dueDate(LocalDate.of(2026, 2, 5))
+                    .build());
+            entityManager.persist(MaintenanceRequest.builder()
+                    .property(property).tenant(tenant).title("Leaking tap")
+                    .build());
+        }
+    }
+
+    private User user(String name, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret123");
+        user.setRoles(Set.of(role));
+        return entityManager.persist(user);
+    }
+
+    private Role role(String name) {
+        Role role = new Role();
+        role.setName(name);
+        return entityManager.persist(role);
+    }
+}
@@ -0,0 +1,67 @@
+package com.property.service;
+
+import com.property.model.Role;
+import com.property.model.User;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomUserDetailsServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    @Test
+    void revocationCheckRereadsEntriesOlderThanItsOwnTtl() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(5), Duration.ZERO);
+        when(userRepository.findByEmail("a@example.com"))
+                .thenReturn(Optional.of(user("ROLE_LANDLORD")))
+                .thenReturn(Optional.of(user("ROLE_TENANT")));
+
+        service.loadUserByUsername("a@example.com");
+        service.loadUserByUsername("a@example.com");
+        verify(userRepository, times(1)).findByEmail("a@example.com");
+
+        assertThat(service.loadCurrentUser("a@example.com").getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_TENANT");
+        // The refreshed entry also serves ordinary lookups
+        assertThat(service.loadUserByUsername("a@example.com").getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_TENANT");
+    }
+
+    @Test
+    void revocationCheckUsesTheCacheWithinItsTtl() {
+        CustomUserDetailsService service = new CustomUserDetailsService(userRepository, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(5), Duration.ofSeconds(30));
+        when(userRepository.findByEmail("a@example.com")).thenReturn(Optional.of(user("ROLE_LANDLORD")));
+
+        service.loadCurrentUser("a@example.com");
+        service.loadCurrentUser("a@example.com");
+
+        verify(userRepository, times(1)).findByEmail("a@example.com");
+    }
+
+    private static User user(String roleName) {
+        Role role = new Role();
+        role.setName(roleName);
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("a@example.com");
+        user.setPassword("secret");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+}
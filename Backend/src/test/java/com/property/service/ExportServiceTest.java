@@ -0,0 +1,79 @@
+package com.property.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.property.repository.LeaseRepository;
+import com.property.repository.PaymentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ExportServiceTest {
+
+    private final ExportService exportService = new ExportService(mock(PaymentRepository.class),
+            mock(LeaseRepository.class), new ObjectMapper(), 1);
+
+    @Test
+    void plainValuesAreWrittenAsIs() throws IOException {
+        assertThat(csv("Flat 2B")).isEqualTo("Flat 2B");
+        assertThat(csv(null)).isEmpty();
+    }
+
+    @Test
+    void separatorsQuotesAndLineBreaksAreQuoted() throws IOException {
+        assertThat(csv("Pune, MH")).isEqualTo("\"Pune, MH\"");
+        assertThat(csv("the \"big\" flat")).isEqualTo("\"the \"\"big\"\" flat\"");
+        assertThat(csv("line one\nline two")).isEqualTo("\"line one\nline two\"");
+        assertThat(csv("line one\r\nline two")).isEqualTo("\"line one\r\nline two\"");
+    }
+
+    @Test
+    void textThatLooksLikeAFormulaIsNeutralised() throws IOException {
+        assertThat(csv("=HYPERLINK(\"http://x\")")).isEqualTo("\"'=HYPERLINK(\"\"http://x\"\")\"");
+        assertThat(csv("+1")).isEqualTo("'+1");
+        assertThat(csv("-1")).isEqualTo("'-1");
+        assertThat(csv("@SUM(A1)")).isEqualTo("'@SUM(A1)");
+        assertThat(csv("\t=1+1")).isEqualTo("'\t=1+1");
+        assertThat(csv("\r=1+1")).isEqualTo("\"'\r=1+1\"");
+    }
+
+    @Test
+    void negativeNumbersAreNotTreatedAsFormulas() throws IOException {
+        assertThat(csv(new BigDecimal("-1500.00"))).isEqualTo("-1500.00");
+    }
+
+    @Test
+    void exportsBeyondTheLimitAreRefusedUntilASlotIsFreed() throws IOException {
+        StreamingResponseBody first = exportService.reserve(out -> out.write('a'));
+
+        assertThatThrownBy(() -> exportService.reserve(out -> out.write('b')))
+                .isInstanceOf(RejectedExecutionException.class);
+
+        first.writeTo(new ByteArrayOutputStream());
+        assertThat(exportService.reserve(out -> out.write('b'))).isNotNull();
+    }
+
+    @Test
+    void aFailedExportStillFreesItsSlot() {
+        StreamingResponseBody failing = exportService.reserve(out -> {
+            throw new IOException("client went away");
+        });
+
+        assertThatThrownBy(() -> failing.writeTo(new ByteArrayOutputStream())).isInstanceOf(IOException.class);
+        assertThat(exportService.reserve(out -> out.write('b'))).isNotNull();
+    }
+
+    private static String csv(Object value) throws IOException {
+        StringWriter writer = new StringWriter();
+        ExportService.writeCsvField(value, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,145 @@
+package com.property.service;
+
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class FileStorageServiceTest {
+
+    private static final int RED = 0xFF0000;
+    private static final int BLUE = 0x0000FF;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void orientationIsReadFromEitherByteOrder() throws IOException {
+        assertThat(FileStorageService.readExifOrientation(jpegWithOrientation(6, ByteOrder.BIG_ENDIAN))).isEqualTo(6);
+        assertThat(FileStorageService.readExifOrientation(jpegWithOrientation(8, ByteOrder.LITTLE_ENDIAN))).isEqualTo(8);
+    }
+
+    @Test
+    void photosWithoutExifAreUpright() throws IOException {
+        Path plain = directory.resolve("plain.jpg");
+        Files.write(plain, jpeg());
+
+        assertThat(FileStorageService.readExifOrientation(plain)).isEqualTo(1);
+    }
+
+    @Test
+    void sidewaysPortraitIsTurnedUpright() {
+        // Stored landscape as the sensor saw it: red on the left, blue on the right
+        BufferedImage sensor = new BufferedImage(2, 1, BufferedImage.TYPE_INT_RGB);
+        sensor.setRGB(0, 0, RED);
+        sensor.setRGB(1, 0, BLUE);
+
+        BufferedImage clockwise = FileStorageService.orient(sensor, 6, false);
+        BufferedImage counterClockwise = FileStorageService.orient(sensor, 8, false);
+
+        assertThat(clockwise.getWidth()).isEqualTo(1);
+        assertThat(clockwise.getHeight()).isEqualTo(2);
+        assertThat(clockwise.getRGB(0, 0) & 0xFFFFFF).isEqualTo(RED);
+        assertThat(clockwise.getRGB(0, 1) & 0xFFFFFF).isEqualTo(BLUE);
+        assertThat(counterClockwise.getRGB(0, 0) & 0xFFFFFF).isEqualTo(BLUE);
+        assertThat(counterClockwise.getRGB(0, 1) & 0xFFFFFF).isEqualTo(RED);
+    }
+
+    @Test
+    void imagesThatFailToDecodeAreLeftWithoutVariants() throws IOException {
+        // Valid header, so the dimensions are readable, but corrupt pixel data
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB), "png", out);
+        byte[] png = out.toByteArray();
+        int data = new String(png, StandardCharsets.ISO_8859_1).indexOf("IDAT") + 4;
+        for (int i = data; i < data + 8; i++) {
+            png[i] = (byte) 0xFF;
+        }
+        Path file = directory.resolve("broken.png");
+        Files.write(file, png);
+
+        assertThat(FileStorageService.readForScaling(file, 1600)).isNull();
+    }
+
+    @Test
+    void aDuplicateUploadRestoresMissingVariants() throws IOException {
+        FileStorageService storage = new FileStorageService(mock(PropertyImageRepository.class),
+                mock(UserRepository.class), directory.resolve("uploads"));
+        byte[] photo = jpeg(2000, 1000);
+
+        FileStorageService.StoredImage first = storage.storeImage(spooled(photo), ".jpg");
+        Path card = storage.resolve(first.cardUrl());
+        assertThat(card).isNotNull();
+        // e.g. lost to a crash while the first upload was writing its variants
+        Files.delete(card);
+
+        FileStorageService.StoredImage second = storage.storeImage(spooled(photo), ".jpg");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(storage.resolve(second.cardUrl())).isNotNull();
+        assertThat(ImageIO.read(storage.resolve(second.cardUrl()).toFile()).getWidth()).isEqualTo(640);
+    }
+
+    @Test
+    void smallPhotosUseTheOriginalForEveryVariant() throws IOException {
+        FileStorageService storage = new FileStorageService(mock(PropertyImageRepository.class),
+                mock(UserRepository.class), directory.resolve("uploads"));
+
+        FileStorageService.StoredImage stored = storage.storeImage(spooled(jpeg(200, 100)), ".jpg");
+
+        assertThat(stored.fullUrl()).isEqualTo(stored.url());
+        assertThat(stored.thumbnailUrl()).isEqualTo(stored.url());
+    }
+
+    private Path spooled(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile(directory, "spool-", ".upload");
+        Files.write(file, bytes);
+        return file;
+    }
+
+    private Path jpegWithOrientation(int orientation, ByteOrder order) throws IOException {
+        // TIFF header + IFD0 with a single SHORT entry: tag 0x0112, count 1
+        ByteBuffer tiff = ByteBuffer.allocate(26).order(order);
+        tiff.put(order == ByteOrder.BIG_ENDIAN ? new byte[]{'M', 'M'} : new byte[]{'I', 'I'});
+        tiff.putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] plain = jpeg();
+        out.write(plain, 0, 2);
+        int length = 2 + 6 + tiff.capacity();
+        out.write(new byte[]{(byte) 0xFF, (byte) 0xE1, (byte) (length >> 8), (byte) length});
+        out.write(new byte[]{'E', 'x', 'i', 'f', 0, 0});
+        out.write(tiff.array());
+        out.write(plain, 2, plain.length - 2);
+
+        Path file = directory.resolve("oriented-" + orientation + ".jpg");
+        Files.write(file, out.toByteArray());
+        return file;
+    }
+
+    private static byte[] jpeg() throws IOException {
+        return jpeg(16, 8);
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+}
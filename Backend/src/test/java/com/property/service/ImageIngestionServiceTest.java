@@ -0,0 +1,187 @@
+package com.property.service;
+
+import com.property.dto.ImageUploadStatus;
+import com.property.model.PropertyImage;
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.PropertyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageIngestionServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 0};
+
+    private final PropertyImageRepository propertyImageRepository = mock(PropertyImageRepository.class);
+    private final FileStorageService fileStorageService = mock(FileStorageService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @TempDir
+    Path spool;
+
+    private ImageIngestionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(fileStorageService.storeImage(any(), eq(".png"))).thenReturn(new FileStorageService.StoredImage(
+                "/uploads/objects/ab/abc.png", null, null, null));
+        service = service(5);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void anUnexpectedSaveFailureStillCompletesTheUpload() throws Exception {
+        when(propertyImageRepository.saveAll(anyList())).thenThrow(new IllegalStateException("pool closed"));
+
+        ImageUploadStatus accepted = service.submit(1L, new MultipartFile[]{
+                new MockMultipartFile("files", "front.png", "image/png", PNG)});
+        ImageUploadStatus status = awaitCompletion(accepted.getUploadId());
+
+        assertThat(status.getImages()).singleElement().satisfies(image -> {
+            assertThat(image.getStatus()).isEqualTo(ImageUploadStatus.Status.REJECTED);
+            assertThat(image.getImageUrl()).isNull();
+        });
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void aStoredBatchIsSavedInOneCallAndReportsTheImageIds() throws Exception {
+        AtomicLong ids = new AtomicLong(100);
+        when(propertyImageRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PropertyImage> images = invocation.getArgument(0);
+            images.forEach(image -> image.setId(ids.incrementAndGet()));
+            return images;
+        });
+
+        ImageUploadStatus accepted = service.submit(1L, new MultipartFile[]{
+                new MockMultipartFile("files", "front.png", "image/png", PNG),
+                new MockMultipartFile("files", "back.png", "image/png", PNG)});
+        assertThat(accepted.getImages()).extracting(ImageUploadStatus.Item::getStatus)
+                .containsOnly(ImageUploadStatus.Status.PENDING);
+        ImageUploadStatus status = awaitCompletion(accepted.getUploadId());
+
+        assertThat(status.getImages()).extracting(ImageUploadStatus.Item::getFileName,
+                        ImageUploadStatus.Item::getStatus, ImageUploadStatus.Item::getImageId)
+                .containsExactly(tuple("front.png", ImageUploadStatus.Status.STORED, 101L),
+                        tuple("back.png", ImageUploadStatus.Status.STORED, 102L));
+        assertThat(status.getImages()).extracting(ImageUploadStatus.Item::getImageUrl)
+                .containsOnly("/uploads/objects/ab/abc.png");
+        verify(propertyImageRepository, times(1)).saveAll(anyList());
+        verify(fileStorageService, never()).release(anyString());
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void filesThatAreNotImagesAreRejectedByTheirContent() throws Exception {
+        ImageUploadStatus accepted = service.submit(1L, new MultipartFile[]{
+                new MockMultipartFile("files", "invoice.png", "image/png", "%PDF-1.7".getBytes(StandardCharsets.US_ASCII))});
+        ImageUploadStatus status = awaitCompletion(accepted.getUploadId());
+
+        assertThat(status.getImages()).singleElement().satisfies(image -> {
+            assertThat(image.getStatus()).isEqualTo(ImageUploadStatus.Status.REJECTED);
+            assertThat(image.getError()).isEqualTo("Not a JPEG, PNG, GIF or WebP image");
+        });
+        verify(fileStorageService, never()).storeImage(any(), anyString());
+        verify(propertyImageRepository, never()).saveAll(anyList());
+        assertSpoolEmpty();
+    }
+
+    @Test
+    void uploadsBeyondTheQueueAreRefusedWithoutLeavingSpoolFiles() throws Exception {
+        CountDownLatch storing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(fileStorageService.storeImage(any(), eq(".png"))).thenAnswer(invocation -> {
+            storing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new FileStorageService.StoredImage("/uploads/objects/ab/abc.png", null, null, null);
+        });
+        when(propertyImageRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        ImageIngestionService busy = service(1);
+        try {
+            // One batch on the only worker, one in the queue
+            String running = busy.submit(1L, new MultipartFile[]{
+                    new MockMultipartFile("files", "a.png", "image/png", PNG)}).getUploadId();
+            assertThat(storing.await(5, TimeUnit.SECONDS)).isTrue();
+            String queued = busy.submit(1L, new MultipartFile[]{
+                    new MockMultipartFile("files", "b.png", "image/png", PNG)}).getUploadId();
+
+            assertThatThrownBy(() -> busy.submit(1L, new MultipartFile[]{
+                    new MockMultipartFile("files", "c.png", "image/png", PNG)}))
+                    .isInstanceOf(RejectedExecutionException.class);
+            try (var files = Files.list(spool)) {
+                assertThat(files).hasSize(2);
+            }
+
+            release.countDown();
+            awaitCompletion(busy, running);
+            awaitCompletion(busy, queued);
+            assertSpoolEmpty();
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+
+    private ImageIngestionService service(int queueCapacity) {
+        return new ImageIngestionService(mock(PropertyRepository.class), propertyImageRepository,
+                fileStorageService, transactionManager, new SimpleMeterRegistry(),
+                1, queueCapacity, spool.toString(), Duration.ofMinutes(5));
+    }
+
+    private void assertSpoolEmpty() throws IOException {
+        try (var files = Files.list(spool)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private ImageUploadStatus awaitCompletion(String uploadId) throws InterruptedException {
+        return awaitCompletion(service, uploadId);
+    }
+
+    private static ImageUploadStatus awaitCompletion(ImageIngestionService service, String uploadId)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        ImageUploadStatus status = service.getStatus(1L, uploadId);
+        while (!status.isCompleted() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = service.getStatus(1L, uploadId);
+        }
+        assertThat(status.isCompleted()).isTrue();
+        return status;
+    }
+}
@@ -0,0 +1,115 @@
+package com.property.service;
+
+import com.property.event.PaymentChangedEvent;
+import com.property.model.Payment;
+import com.property.repository.LandlordMonthlyRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LandlordRollupServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final LandlordRollupService service = new LandlordRollupService(
+            mock(LandlordMonthlyRollupRepository.class), jdbcTemplate, transactionManager);
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    void eventsDuringRebuildAreNotBlockedAndAreFlushedAfterIt() throws Exception {
+        // The snapshot query is running when this payment commits, so it is not part of the snapshot
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> service.onPaymentChanged(paymentCreated(7L)))
+                    .get(5, TimeUnit.SECONDS);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT pr.landlord_id, DATE_FORMAT"), any(RowCallbackHandler.class));
+
+        service.rebuild();
+        verify(jdbcTemplate).update("DELETE FROM landlord_monthly_rollups");
+
+        service.flush();
+
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO landlord_monthly_rollups"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1
+                        && rows.get(0)[0].equals(7L)
+                        && rows.get(0)[1].equals("2026-03")
+                        && ((BigDecimal) rows.get(0)[2]).compareTo(new BigDecimal("1000")) == 0));
+    }
+
+    @Test
+    void deltasFromBeforeTheRebuildAreDroppedWhenItSucceeds() {
+        service.onPaymentChanged(paymentCreated(7L));
+
+        service.rebuild();
+        service.flush();
+
+        // Only the rebuild's own (empty) insert batch
+        verify(jdbcTemplate, never()).batchUpdate(anyString(),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> !rows.isEmpty()));
+    }
+
+    @Test
+    void deltasFromBeforeTheRebuildSurviveItsFailure() {
+        service.onPaymentChanged(paymentCreated(7L));
+        doAnswer(invocation -> {
+            throw new IllegalStateException("connection lost");
+        }).when(jdbcTemplate).query(startsWith("SELECT pr.landlord_id, DATE_FORMAT"), any(RowCallbackHandler.class));
+
+        try {
+            service.rebuild();
+        } catch (IllegalStateException expected) {
+            // fall through to the flush
+        }
+        service.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void aFailedFlushKeepsItsDeltasForTheNextOne() {
+        when(jdbcTemplate.batchUpdate(startsWith("INSERT INTO landlord_monthly_rollups"), anyList()))
+                .thenThrow(new QueryTimeoutException("lock wait timeout"))
+                .thenReturn(new int[]{1});
+        service.onPaymentChanged(paymentCreated(7L));
+
+        service.flush();
+        service.onPaymentChanged(paymentCreated(7L));
+        service.flush();
+
+        // Both payments, merged into the one row the retry writes
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO landlord_monthly_rollups"),
+                ArgumentMatchers.<List<Object[]>>argThat(rows -> rows.size() == 1
+                        && ((BigDecimal) rows.get(0)[2]).compareTo(new BigDecimal("2000")) == 0));
+    }
+
+    private static PaymentChangedEvent paymentCreated(Long landlordId) {
+        return new PaymentChangedEvent(1L, landlordId, LocalDate.of(2026, 3, 5), new BigDecimal("1000"),
+                null, Payment.Status.PENDING);
+    }
+}
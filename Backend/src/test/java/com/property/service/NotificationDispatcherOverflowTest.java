@@ -0,0 +1,85 @@
+package com.property.service;
+
+import com.property.model.Notification;
+import com.property.model.User;
+import com.property.repository.NotificationRepository;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs against the database because the overflow write happens after the
+ * caller's transaction has committed, which a mocked transaction manager
+ * cannot reproduce.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationDispatcherOverflowTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final NotificationStreamService streams = mock(NotificationStreamService.class);
+    private final UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void aFullOutboxStillCommitsTheRowWrittenAfterTheCallersTransaction() {
+        User tenant = new User();
+        tenant.setName("tenant");
+        tenant.setEmail("tenant@example.com");
+        tenant.setPassword("secret123");
+        Long tenantId = userRepository.save(tenant).getId();
+        NotificationDispatcher dispatcher = new NotificationDispatcher(notificationRepository, userRepository,
+                transactionManager, streams, unreadCounter, new SimpleMeterRegistry(), 1, 500, Duration.ZERO);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            dispatcher.enqueue(notification(tenantId, "Queued"));
+            dispatcher.enqueue(notification(tenantId, "Overflow"));
+        });
+
+        // The first fills the outbox, the second is written by the caller
+        assertThat(notificationRepository.findByUserId(tenantId))
+                .extracting(Notification::getTitle).containsExactly("Overflow");
+        verify(unreadCounter).add(tenantId, 1);
+        verify(streams).publish(eq(tenantId), anyList());
+
+        dispatcher.flush();
+        assertThat(notificationRepository.findByUserId(tenantId)).hasSize(2);
+    }
+
+    private static NotificationDispatcher.PendingNotification notification(Long userId, String title) {
+        return new NotificationDispatcher.PendingNotification(userId, title, null,
+                Notification.Type.INFO, null);
+    }
+}
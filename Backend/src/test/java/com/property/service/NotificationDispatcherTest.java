@@ -0,0 +1,111 @@
+package com.property.service;
+
+import com.property.model.Notification;
+import com.property.model.User;
+import com.property.repository.NotificationRepository;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private static final long DELETED_USER = 13L;
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final List<Long> written = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(userRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+        when(notificationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Notification> batch = invocation.getArgument(0);
+            if (batch.stream().anyMatch(notification -> notification.getUser().getId() == DELETED_USER)) {
+                throw new DataIntegrityViolationException("fk_notifications_user");
+            }
+            batch.forEach(notification -> {
+                notification.setId(ids.incrementAndGet());
+                written.add(notification.getUser().getId());
+            });
+            return batch;
+        });
+    }
+
+    @Test
+    void aBadRowOnlyLosesItself() {
+        NotificationDispatcher dispatcher = dispatcher(Duration.ZERO);
+        for (long user = 1; user <= 20; user++) {
+            dispatcher.enqueue(notification(user));
+        }
+
+        dispatcher.flush();
+
+        assertThat(written).hasSize(19).doesNotContain(DELETED_USER);
+    }
+
+    @Test
+    void aTransientFailureIsRetriedOnTheNextFlush() {
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("pool exhausted"))
+                .thenReturn(new SimpleTransactionStatus());
+        NotificationDispatcher dispatcher = dispatcher(Duration.ZERO);
+        dispatcher.enqueue(notification(1L));
+        dispatcher.enqueue(notification(2L));
+
+        dispatcher.flush();
+        assertThat(written).isEmpty();
+
+        dispatcher.flush();
+        assertThat(written).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void theFirstNotificationIsWrittenAtOnceAndRepeatsAreSummarised() {
+        NotificationDispatcher dispatcher = dispatcher(Duration.ofSeconds(30));
+        dispatcher.enqueue(notification(1L));
+        dispatcher.enqueue(notification(2L));
+        dispatcher.enqueue(notification(1L));
+        dispatcher.enqueue(notification(1L));
+
+        dispatcher.flush();
+        assertThat(written).containsExactly(1L, 2L);
+
+        dispatcher.flushOnShutdown();
+        assertThat(written).containsExactly(1L, 2L, 1L);
+    }
+
+    private NotificationDispatcher dispatcher(Duration coalesceWindow) {
+        return new NotificationDispatcher(notificationRepository, userRepository, transactionManager,
+                mock(NotificationStreamService.class), mock(UnreadNotificationCounter.class),
+                new SimpleMeterRegistry(), 1000, 500, coalesceWindow);
+    }
+
+    private static NotificationDispatcher.PendingNotification notification(Long userId) {
+        return new NotificationDispatcher.PendingNotification(userId, "Payment Due", "Rent is due",
+                Notification.Type.INFO, "/payments");
+    }
+}
@@ -0,0 +1,114 @@
+package com.property.service;
+
+import com.property.model.Notification;
+import com.property.model.User;
+import com.property.repository.NotificationRepository;
+import com.property.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Commits for real: the unread counter is only adjusted after the commit.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(NotificationService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NotificationServiceTest {
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @SpyBean
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private NotificationDispatcher notificationDispatcher;
+
+    @MockBean
+    private NotificationStreamService notificationStreamService;
+
+    @MockBean
+    private UnreadNotificationCounter unreadCounter;
+
+    @AfterEach
+    void tearDown() {
+        notificationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void aNotificationReadConcurrentlyIsNotCountedTwice() {
+        User tenant = tenant();
+        Long id = unread(tenant.getId());
+
+        // Another request marks it read after this one has loaded it as unread
+        doAnswer(invocation -> {
+            TransactionTemplate concurrent = new TransactionTemplate(transactionManager);
+            concurrent.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            concurrent.executeWithoutResult(status -> notificationRepository.markAsReadById(id));
+            return Optional.of(tenant);
+        }).when(userRepository).findByEmail("tenant@example.com");
+
+        assertThat(notificationService.markAsRead(id, "tenant@example.com").getIsRead()).isTrue();
+
+        // Only the request that flipped the row (not this one) moves the counter
+        verify(unreadCounter, never()).add(anyLong(), anyLong());
+        assertThat(notificationRepository.countUnreadByUserId(tenant.getId())).isZero();
+    }
+
+    @Test
+    void markingAnUnreadNotificationMovesTheCounter() {
+        Long tenantId = tenant().getId();
+        Long id = unread(tenantId);
+
+        notificationService.markAsRead(id, "tenant@example.com");
+        notificationService.markAsRead(id, "tenant@example.com");
+
+        verify(unreadCounter, times(1)).add(tenantId, -1);
+        verify(unreadCounter, times(1)).add(anyLong(), anyLong());
+    }
+
+    private User tenant() {
+        User tenant = new User();
+        tenant.setName("tenant");
+        tenant.setEmail("tenant@example.com");
+        tenant.setPassword("secret123");
+        return userRepository.save(tenant);
+    }
+
+    private Long unread(Long userId) {
+        return notificationRepository.save(Notification.builder()
+                .user(userRepository.getReferenceById(userId)).title("Payment Due").type(Notification.Type.INFO)
+                .isRead(false)
+                .build()).getId();
+    }
+}
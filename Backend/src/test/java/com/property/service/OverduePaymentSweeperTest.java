@@ -0,0 +1,121 @@
+package com.property.service;
+
+import com.property.event.PaymentChangedEvent;
+import com.property.model.Lease;
+import com.property.model.Payment;
+import com.property.model.Property;
+import com.property.model.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "app.payments.overdue-sweep.chunk-size=2")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OverduePaymentSweeper.class, SimpleMeterRegistry.class})
+@RecordApplicationEvents
+class OverduePaymentSweeperTest {
+
+    @Autowired
+    private OverduePaymentSweeper sweeper;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    private int seeded;
+
+    @Test
+    void everyPastDuePaymentIsMovedOnceAcrossChunks() {
+        LocalDate today = LocalDate.now();
+        Lease lease = lease();
+        // Ids and due dates deliberately in different orders, and more rows than one chunk
+        List<Payment> overdue = new ArrayList<>();
+        for (int daysLate : new int[]{3, 40, 3, 10, 1}) {
+            overdue.add(payment(lease, today.minusDays(daysLate), Payment.Status.PENDING));
+        }
+        Payment notDueYet = payment(lease, today, Payment.Status.PENDING);
+        Payment paid = payment(lease, today.minusDays(5), Payment.Status.PAID);
+        entityManager.flush();
+        entityManager.clear();
+
+        sweeper.sweep();
+        sweeper.sweep();
+
+        entityManager.clear();
+        for (Payment payment : overdue) {
+            assertThat(status(payment)).isEqualTo(Payment.Status.OVERDUE);
+        }
+        assertThat(status(notDueYet)).isEqualTo(Payment.Status.PENDING);
+        assertThat(status(paid)).isEqualTo(Payment.Status.PAID);
+
+        assertThat(events.stream(PaymentChangedEvent.class).map(PaymentChangedEvent::paymentId))
+                .containsExactlyInAnyOrderElementsOf(overdue.stream().map(Payment::getId).toList());
+        assertThat(events.stream(PaymentChangedEvent.class))
+                .allMatch(event -> event.previousStatus() == Payment.Status.PENDING
+                        && event.currentStatus() == Payment.Status.OVERDUE
+                        && event.landlordId().equals(lease.getProperty().getLandlord().getId()));
+        verify(notificationService, times(overdue.size())).queueNotification(
+                eq(lease.getTenant().getId()), eq("Payment Overdue"), anyString(), eq("WARNING"));
+    }
+
+    private Payment.Status status(Payment payment) {
+        return entityManager.find(Payment.class, payment.getId()).getStatus();
+    }
+
+    private Payment payment(Lease lease, LocalDate dueDate, Payment.Status status) {
+        return entityManager.persist(Payment.builder()
+                .lease(lease).amount(new BigDecimal("1000")).dueDate(dueDate).status(status)
+                .build());
+    }
+
+    private Lease lease() {
+        seeded++;
+        User landlord = user("landlord" + seeded);
+        User tenant = user("tenant" + seeded);
+        Property property = entityManager.persist(Property.builder()
+                .title("Flat " + seeded).address("Street").city("Pune").state("MH").zipCode("411001")
+                .rent(new BigDecimal("1000")).deposit(new BigDecimal("2000"))
+                .bedrooms(2).bathrooms(1)
+                .status(Property.Status.RENTED)
+                .landlord(landlord)
+                .build());
+        return entityManager.persist(Lease.builder()
+                .property(property).tenant(tenant)
+                .startDate(LocalDate.of(2026, 1, 1)).endDate(LocalDate.of(2026, 12, 31))
+                .rentAmount(new BigDecimal("1000")).securityDeposit(new BigDecimal("2000"))
+                .build());
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret123");
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,85 @@
+package com.property.service;
+
+import com.property.dto.PropertySearchRequest;
+import com.property.model.Property;
+import com.property.repository.PropertyRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PropertySearchIndexTest {
+
+    private final PropertyRepository propertyRepository = mock(PropertyRepository.class);
+    private final PropertySearchIndex index = new PropertySearchIndex(propertyRepository);
+
+    @Test
+    void changesMadeWhileRebuildingSurviveTheSwap() {
+        Property kept = property(1L, "Pune", Property.Status.AVAILABLE);
+        Property deletedMeanwhile = property(2L, "Pune", Property.Status.AVAILABLE);
+        Property createdMeanwhile = property(3L, "Mumbai", Property.Status.AVAILABLE);
+
+        // The snapshot is read before these changes commit, so it still has the old state
+        when(propertyRepository.findPage(isNull(), any())).thenAnswer(invocation -> {
+            index.index(createdMeanwhile);
+            index.remove(2L);
+            index.updateStatus(1L, Property.Status.RENTED);
+            return List.of(deletedMeanwhile, kept);
+        });
+
+        index.rebuild();
+
+        assertThat(index.search(new PropertySearchRequest(), 10)).containsExactly(3L, 1L);
+        assertThat(index.search(status("RENTED"), 10)).containsExactly(1L);
+    }
+
+    @Test
+    void changesAfterRebuildAreNotReplayedAgain() {
+        when(propertyRepository.findPage(isNull(), any())).thenReturn(List.of(property(1L, "Pune", Property.Status.AVAILABLE)));
+        index.rebuild();
+
+        index.remove(1L);
+        index.rebuild();
+
+        assertThat(index.search(new PropertySearchRequest(), 10)).containsExactly(1L);
+    }
+
+    @Test
+    void aPageHoldsTheNewestMatchesOfEveryFilter() {
+        for (long id = 1; id <= 40; id++) {
+            index.index(property(id, id % 2 == 0 ? "Pune" : "Mumbai",
+                    id % 3 == 0 ? Property.Status.RENTED : Property.Status.AVAILABLE));
+        }
+        PropertySearchRequest rentedInPune = status("RENTED");
+        rentedInPune.setCity("pune");
+
+        assertThat(index.search(rentedInPune, 3)).containsExactly(36L, 30L, 24L);
+        assertThat(index.search(new PropertySearchRequest(), 2)).containsExactly(40L, 39L);
+        assertThat(index.search(rentedInPune, 100)).containsExactly(36L, 30L, 24L, 18L, 12L, 6L);
+    }
+
+    private static PropertySearchRequest status(String status) {
+        PropertySearchRequest request = new PropertySearchRequest();
+        request.setStatus(status);
+        return request;
+    }
+
+    private static Property property(Long id, String city, Property.Status status) {
+        return Property.builder()
+                .id(id)
+                .title("Flat " + id)
+                .city(city)
+                .state("MH")
+                .rent(new BigDecimal("15000"))
+                .bedrooms(2)
+                .bathrooms(1)
+                .status(status)
+                .build();
+    }
+}
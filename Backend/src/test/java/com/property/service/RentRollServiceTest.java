@@ -0,0 +1,101 @@
+package com.property.service;
+
+import com.property.dto.RentRollResult;
+import com.property.model.Lease;
+import com.property.model.Property;
+import com.property.model.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RentRollService.class)
+class RentRollServiceTest {
+
+    @Autowired
+    private RentRollService rentRollService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private NotificationService notificationService;
+
+    private Statistics statistics;
+    private int seeded;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void paymentsAreWrittenInBatchesNotOneStatementPerLease() {
+        seed(3);
+        long small = statementsToBill(YearMonth.of(2026, 3), 3);
+
+        seed(120);
+        long large = statementsToBill(YearMonth.of(2026, 4), 123);
+
+        // billable-lease query + one insert statement reused for every batch
+        assertThat(small).isEqualTo(2);
+        assertThat(large).isEqualTo(small);
+    }
+
+    private long statementsToBill(YearMonth period, int leases) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        RentRollResult result = rentRollService.generate(period);
+        entityManager.flush();
+
+        assertThat(result.getPaymentsCreated()).isEqualTo(leases);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(leases);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void seed(int count) {
+        for (int i = 0; i < count; i++, seeded++) {
+            User landlord = user("landlord" + seeded);
+            User tenant = user("tenant" + seeded);
+            Property property = entityManager.persist(Property.builder()
+                    .title("Flat " + seeded).address("Street").city("Pune").state("MH").zipCode("411001")
+                    .rent(new BigDecimal("1000")).deposit(new BigDecimal("2000"))
+                    .bedrooms(2).bathrooms(1)
+                    .status(Property.Status.RENTED)
+                    .landlord(landlord)
+                    .build());
+            entityManager.persist(Lease.builder()
+                    .property(property).tenant(tenant)
+                    .startDate(LocalDate.of(2026, 1, 1)).endDate(LocalDate.of(2026, 12, 31))
+                    .rentAmount(new BigDecimal("1000")).securityDeposit(new BigDecimal("2000"))
+                    .build());
+        }
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret123");
+        return entityManager.persist(user);
+    }
+}
@@ -0,0 +1,80 @@
+package com.property.service;
+
+import com.property.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCounterTest {
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationRepository,
+            new SimpleMeterRegistry(), 100, Duration.ofHours(1));
+
+    @Test
+    void adjustmentsMadeWhileSeedingAreKept() {
+        // A notification written after the count was taken, while the seed is still in flight
+        when(notificationRepository.countUnreadByUserId(1L))
+                .thenAnswer(invocation -> {
+                    counter.add(1L, 1);
+                    return 5L;
+                })
+                .thenReturn(6L);
+
+        assertThat(counter.get(1L)).isEqualTo(6);
+
+        counter.add(1L, -2);
+        assertThat(counter.get(1L)).isEqualTo(4);
+        verify(notificationRepository, times(2)).countUnreadByUserId(1L);
+    }
+
+    @Test
+    void anAdjustmentTheSeedAlreadyCountedIsNotAddedAgain() {
+        // Committed before the count was taken, but its listener runs while the query is in flight
+        when(notificationRepository.countUnreadByUserId(1L))
+                .thenAnswer(invocation -> {
+                    counter.add(1L, 1);
+                    return 6L;
+                })
+                .thenReturn(6L);
+
+        assertThat(counter.get(1L)).isEqualTo(6);
+    }
+
+    @Test
+    void aSeedThatIsAlwaysDisturbedIsTakenOnTheLastAttempt() {
+        when(notificationRepository.countUnreadByUserId(1L)).thenAnswer(invocation -> {
+            counter.add(1L, 1);
+            return 5L;
+        });
+
+        assertThat(counter.get(1L)).isEqualTo(6);
+        verify(notificationRepository, times(3)).countUnreadByUserId(1L);
+    }
+
+    @Test
+    void resetWhileSeedingWins() {
+        when(notificationRepository.countUnreadByUserId(1L)).thenAnswer(invocation -> {
+            counter.reset(1L);
+            return 5L;
+        });
+
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    void adjustmentsForUncachedUsersAreSkipped() {
+        when(notificationRepository.countUnreadByUserId(1L)).thenReturn(3L);
+
+        counter.add(1L, 1);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+    }
+}
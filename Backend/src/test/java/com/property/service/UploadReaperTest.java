@@ -0,0 +1,123 @@
+package com.property.service;
+
+import com.property.dto.UploadReapReport;
+import com.property.repository.PropertyImageRepository;
+import com.property.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UploadReaperTest {
+
+    private final PropertyImageRepository propertyImageRepository = mock(PropertyImageRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ImageIngestionService imageIngestionService = mock(ImageIngestionService.class);
+
+    @TempDir
+    Path directory;
+
+    private FileStorageService storage;
+    private Path temp;
+    private Path spool;
+    private UploadReaper reaper;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FileStorageService(propertyImageRepository, userRepository,
+                directory.resolve("uploads"));
+        temp = directory.resolve("uploads/objects/.tmp");
+        spool = Files.createDirectories(directory.resolve("uploads-spool"));
+        when(imageIngestionService.getSpoolDirectory()).thenReturn(spool);
+        reaper = new UploadReaper(storage, imageIngestionService, propertyImageRepository, userRepository,
+                new SimpleMeterRegistry(), true, false, Duration.ofHours(24), 500, 100, 0);
+    }
+
+    @Test
+    void staleTempAndSpoolFilesAreDeletedWithoutADatabaseLookup() throws IOException {
+        Path staleTemp = file(temp.resolve("upload-1.tmp"), Duration.ofDays(2));
+        Path freshTemp = file(temp.resolve("upload-2.tmp"), Duration.ofMinutes(5));
+        Path staleSpool = file(spool.resolve("a.upload"), Duration.ofDays(2));
+        Path freshSpool = file(spool.resolve("b.upload"), Duration.ofMinutes(5));
+
+        UploadReapReport report = reaper.reap(false);
+
+        assertThat(staleTemp).doesNotExist();
+        assertThat(staleSpool).doesNotExist();
+        assertThat(freshTemp).exists();
+        assertThat(freshSpool).exists();
+        assertThat(report.getFilesScanned()).isEqualTo(4);
+        assertThat(report.getFilesDeleted()).isEqualTo(2);
+        verifyNoInteractions(propertyImageRepository, userRepository);
+    }
+
+    @Test
+    void aDryRunOnlyReportsStaleScratchFiles() throws IOException {
+        Path staleSpool = file(spool.resolve("a.upload"), Duration.ofDays(2));
+
+        UploadReapReport report = reaper.reap(true);
+
+        assertThat(staleSpool).exists();
+        assertThat(report.getOrphansFound()).isEqualTo(1);
+        assertThat(report.getSample()).containsExactly(staleSpool.toString());
+    }
+
+    @Test
+    void variantsReusedByAnUploadDuringTheRunAreKept() throws IOException {
+        byte[] photo = jpeg(2000, 1000);
+        FileStorageService.StoredImage stored = storage.storeImage(spooled(photo), ".jpg");
+        List<Path> files = Stream.of(stored.url(), stored.fullUrl(), stored.cardUrl(), stored.thumbnailUrl())
+                .map(storage::resolve).toList();
+        for (Path file : files) {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        }
+        // The same photo is uploaded again after the reaper found it unreferenced
+        when(propertyImageRepository.findReferencedUrls(anyCollection())).thenAnswer(invocation -> {
+            storage.storeImage(spooled(photo), ".jpg");
+            return List.of();
+        });
+
+        UploadReapReport report = reaper.reap(false);
+
+        assertThat(report.getOrphansFound()).isEqualTo(4);
+        assertThat(report.getFilesDeleted()).isZero();
+        assertThat(files).allMatch(Files::exists);
+    }
+
+    private Path spooled(byte[] bytes) throws IOException {
+        Path file = Files.createTempFile(directory, "spool-", ".upload");
+        Files.write(file, bytes);
+        return file;
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpg", out);
+        return out.toByteArray();
+    }
+
+    private static Path file(Path path, Duration age) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[]{1, 2, 3});
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(age)));
+        return path;
+    }
+}
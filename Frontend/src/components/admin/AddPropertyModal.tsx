@@ -86,16 +86,31 @@ export const AddPropertyModal: React.FC<AddPropertyModalProps> = ({ isOpen, onCl
       const newProperty = await propertiesAPI.create(payload); 
       // --- END FIX ---
       
+      let warning: string | null = null;
       if (selectedFiles.length > 0) {
-        // Use propertiesAPI to upload images
-        await propertiesAPI.uploadImages(newProperty.id, selectedFiles);
+        // Upload is processed in the background; wait until every file is stored or rejected
+        const upload = await propertiesAPI.uploadImages(newProperty.id, selectedFiles);
+        const result = await propertiesAPI.waitForUpload(newProperty.id, upload);
+        const rejected = result.images
+          .filter(image => image.status === 'REJECTED')
+          .map(image => `${image.fileName} (${image.error})`);
+        if (!result.completed) {
+          warning = 'Property created. Its images are still being processed and will appear shortly.';
+        } else if (rejected.length > 0) {
+          warning = `Property created, but these images could not be added: ${rejected.join(', ')}`;
+        }
       }
 
       onPropertyCreated(); 
-      onClose(); 
       setFormData(initialState); 
       setSelectedFiles([]);
       setImagePreviews([]);
+      if (warning) {
+        // The property exists; keep the modal open only to report on its images
+        setError(warning);
+        return;
+      }
+      onClose(); 
     } catch (err: any) {
       console.error(err);
       setError(err.response?.data?.message || "Failed to create property.");
@@ -10,7 +10,8 @@ import {
   Property,
   PropertyRequest, // Import the corrected type
   Lease,
-  Payment
+  Payment,
+  ImageUploadStatus
 } from '../types';
 
 // --- Base Configuration ---
@@ -93,16 +94,33 @@ export const propertiesAPI = {
   getAvailable: (): Promise<Property[]> => 
     apiClient.get<Property[]>('/properties/available').then(res => res.data),
     
-  // Add the image upload function
-  uploadImages: (propertyId: string | number, files: File[]): Promise<string[]> => {
+  // Accepted with 202 and processed in the background; see waitForUpload
+  uploadImages: (propertyId: string | number, files: File[]): Promise<ImageUploadStatus> => {
     const formData = new FormData();
     files.forEach(file => {
       formData.append('files', file);
     });
-    return apiClient.post<string[]>(`/properties/${propertyId}/upload-images`, formData, {
+    return apiClient.post<ImageUploadStatus>(`/properties/${propertyId}/upload-images`, formData, {
       headers: { 'Content-Type': 'multipart/form-data' },
     }).then(res => res.data);
   },
+
+  getUploadStatus: (propertyId: string | number, uploadId: string): Promise<ImageUploadStatus> =>
+    apiClient.get<ImageUploadStatus>(`/properties/${propertyId}/uploads/${uploadId}`).then(res => res.data),
+
+  // Polls the upload until every file has been stored or rejected, or the timeout passes
+  // (the returned status then still has completed === false)
+  waitForUpload: async (propertyId: string | number, upload: ImageUploadStatus,
+                        intervalMs = 1000, timeoutMs = 120000): Promise<ImageUploadStatus> => {
+    const deadline = Date.now() + timeoutMs;
+    let status = upload;
+    while (!status.completed && Date.now() < deadline) {
+      await new Promise(resolve => setTimeout(resolve, intervalMs));
+      status = await apiClient.get<ImageUploadStatus>(`/properties/${propertyId}/uploads/${upload.uploadId}`)
+        .then(res => res.data);
+    }
+    return status;
+  },
 };
 
 /**
@@ -102,4 +102,22 @@ export interface PropertyRequest {
 export interface LoginResponse {
   token: string;
   user: User;
+}
+
+// Matches ImageUploadStatus: returned with 202 by upload-images, then polled until completed
+export interface ImageUploadItem {
+  id: string;
+  fileName: string;
+  status: 'PENDING' | 'STORED' | 'REJECTED';
+  imageId?: number | null;
+  imageUrl?: string | null;
+  thumbnailUrl?: string | null;
+  error?: string | null;
+}
+
+export interface ImageUploadStatus {
+  uploadId: string;
+  propertyId: number;
+  completed: boolean;
+  images: ImageUploadItem[];
 }
\ No newline at end of file